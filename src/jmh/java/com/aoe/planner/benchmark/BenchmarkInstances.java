@@ -0,0 +1,40 @@
+package com.aoe.planner.benchmark;
+
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.model.Task;
+import com.aoe.planner.solver.CPSATSolver;
+import com.aoe.planner.solver.InstanceGenerator;
+import com.aoe.planner.solver.RCPSPModel;
+
+import java.util.*;
+
+/**
+ * Instancias compartidas por los benchmarks: el modelo base de
+ * InstanceGenerator multiplicado por 'scale' (semilla fija, así cada
+ * ejecución mide exactamente el mismo grafo)
+ */
+final class BenchmarkInstances {
+
+    static final long SEED = 42;
+
+    private BenchmarkInstances() {
+    }
+
+    static RCPSPModel generate(int scale) {
+        return new InstanceGenerator(SEED).scaled(scale).generate();
+    }
+
+    /**
+     * Plan de acciones en orden topológico (sin resolver), para alimentar al simulador
+     */
+    static List<String> topologicalPlan(PrecedenceGraph graph) {
+        List<String> plan = new ArrayList<>();
+        for (Task task : graph.getTopologicalOrder()) {
+            String action = CPSATSolver.taskTypeToAction(task);
+            if (action != null) {
+                plan.add(action);
+            }
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,67 @@
+package com.aoe.planner.benchmark;
+
+import com.aoe.planner.algorithm.CPMHeuristic;
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.algorithm.ReadyQueue;
+import com.aoe.planner.model.GameState;
+import com.aoe.planner.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorridos del grafo de precedencias: orden topológico, heurística CPM
+ * y despacho completo con ReadyQueue por camino crítico
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GraphBenchmark {
+
+    @Param({"1", "5", "10"})
+    public int scale;
+
+    private PrecedenceGraph graph;
+    private GameState[] states;
+    private int next;
+    private CPMHeuristic heuristic;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = BenchmarkInstances.generate(scale).getGraph();
+        // Dos estados vecinos (una tarea de diferencia) para medir el recálculo incremental del CPM
+        List<Task> order = graph.getTopologicalOrder();
+        GameState before = new GameState();
+        before.setVerbose(false);
+        before.setTaskIndex(graph.compact());
+        for (Task task : order.subList(0, order.size() / 2)) {
+            before.markTaskCompleted(task.getId());
+        }
+        GameState after = before.clone();
+        after.markTaskCompleted(order.get(order.size() / 2).getId());
+        states = new GameState[] {before, after};
+        heuristic = new CPMHeuristic();
+    }
+
+    @Benchmark
+    public List<Task> topologicalOrder() {
+        return graph.getTopologicalOrder();
+    }
+
+    @Benchmark
+    public double cpmHeuristic() {
+        next ^= 1;
+        return heuristic.calculate(states[next], graph);
+    }
+
+    @Benchmark
+    public int readyQueueDrain() {
+        ReadyQueue queue = new ReadyQueue(graph.compact(), ReadyQueue.byCriticalPath(graph.compact()));
+        int last = -1;
+        while (!queue.isEmpty()) {
+            last = queue.poll();
+        }
+        return last;
+    }
+}
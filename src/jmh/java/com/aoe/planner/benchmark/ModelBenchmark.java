@@ -0,0 +1,45 @@
+package com.aoe.planner.benchmark;
+
+import com.aoe.planner.model.Resource;
+import com.aoe.planner.solver.CPSATSolver;
+import com.aoe.planner.solver.CompiledModel;
+import com.aoe.planner.solver.NativeLibraries;
+import com.aoe.planner.solver.RCPSPModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción de modelos: RCPSPModel.buildModel() y el modelo CP-SAT
+ * completo (variables, restricciones y flujo de recursos), sin búsqueda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ModelBenchmark {
+
+    @Param({"1", "5", "10"})
+    public int scale;
+
+    private RCPSPModel generated;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NativeLibraries.ensureLoaded();
+        generated = BenchmarkInstances.generate(scale);
+    }
+
+    @Benchmark
+    public RCPSPModel buildModel() {
+        RCPSPModel model = new RCPSPModel(1200 * scale, 13 * scale, 2 * scale, new Resource(200, 200, 100), 3);
+        model.buildModel();
+        return model;
+    }
+
+    @Benchmark
+    public CompiledModel compileCpModel() {
+        CPSATSolver solver = new CPSATSolver(generated);
+        solver.setVerbose(false);
+        return solver.compile("benchmark");
+    }
+}
@@ -0,0 +1,69 @@
+package com.aoe.planner.benchmark;
+
+import com.aoe.planner.model.GameState;
+import com.aoe.planner.simulation.DiscreteEventSimulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulación: GameState.tick()/clone() sobre un estado a mitad de partida
+ * y DiscreteEventSimulator.executePlan() con el plan completo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimulatorBenchmark {
+
+    @Param({"1", "5", "10"})
+    public int scale;
+
+    private List<String> plan;
+    private GameState midGame;
+    private GameState ticking;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        plan = BenchmarkInstances.topologicalPlan(BenchmarkInstances.generate(scale).getGraph());
+        DiscreteEventSimulator simulator = quietSimulator();
+        for (String action : plan.subList(0, plan.size() / 2)) {
+            simulator.executeStep(action);
+        }
+        midGame = simulator.getState();
+    }
+
+    /**
+     * El tick avanza el estado, así que cada iteración parte de una copia fresca
+     */
+    @Setup(Level.Iteration)
+    public void resetTicking() {
+        ticking = midGame.clone();
+    }
+
+    @Benchmark
+    public GameState tick() {
+        ticking.tick();
+        return ticking;
+    }
+
+    @Benchmark
+    public GameState cloneState() {
+        return midGame.clone();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public GameState executePlan() {
+        DiscreteEventSimulator simulator = quietSimulator();
+        simulator.executePlan(plan);
+        return simulator.getState();
+    }
+
+    private static DiscreteEventSimulator quietSimulator() {
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(new GameState());
+        simulator.setVerbose(false);
+        return simulator;
+    }
+}
@@ -1,24 +1,117 @@
 package com.aoe.planner;
 
+import com.aoe.planner.config.BatchProperties;
+import com.aoe.planner.config.CacheProperties;
+import com.aoe.planner.config.DaemonProperties;
+import com.aoe.planner.config.GeneratorProperties;
+import com.aoe.planner.config.PsplibProperties;
+import com.aoe.planner.config.SearchProperties;
+import com.aoe.planner.config.SolverProperties;
+import com.aoe.planner.config.SweepProperties;
 import com.aoe.planner.evaluation.*;
 import com.aoe.planner.model.*;
+import com.aoe.planner.psplib.PsplibBenchmark;
+import com.aoe.planner.psplib.PsplibReader;
+import com.aoe.planner.search.AStarPlanner;
+import com.aoe.planner.search.RolloutPlanner;
+import com.aoe.planner.search.RolloutResult;
+import com.aoe.planner.search.SearchResult;
+import com.aoe.planner.server.PlanningServer;
 import com.aoe.planner.simulation.DiscreteEventSimulator;
 import com.aoe.planner.solver.*;
+import com.aoe.planner.sweep.ModelBatch;
+import com.aoe.planner.sweep.ScalingStudy;
+import com.aoe.planner.sweep.ScenarioSweep;
 import com.aoe.planner.util.Metrics;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import java.nio.file.Path;
 import java.util.*;
 
 @SpringBootApplication
+@EnableConfigurationProperties({SolverProperties.class, SweepProperties.class, DaemonProperties.class,
+                                 CacheProperties.class, BatchProperties.class, PsplibProperties.class,
+                                 GeneratorProperties.class, SearchProperties.class})
 public class AgeOfEmpiresApplication implements CommandLineRunner {
     
+    private final SolverProperties solverProperties;
+    private final SweepProperties sweepProperties;
+    private final DaemonProperties daemonProperties;
+    private final BatchProperties batchProperties;
+    private final PsplibProperties psplibProperties;
+    private final GeneratorProperties generatorProperties;
+    private final SearchProperties searchProperties;
+    private final ScheduleCache cache;
+    private final String mode;
+    private final int rollingInterval;
+    
+    public AgeOfEmpiresApplication(SolverProperties solverProperties,
+                                   SweepProperties sweepProperties,
+                                   DaemonProperties daemonProperties,
+                                   CacheProperties cacheProperties,
+                                   BatchProperties batchProperties,
+                                   PsplibProperties psplibProperties,
+                                   GeneratorProperties generatorProperties,
+                                   SearchProperties searchProperties,
+                                   @Value("${planner.mode:plan}") String mode,
+                                   @Value("${planner.rolling.interval:60}") int rollingInterval) {
+        this.solverProperties = solverProperties;
+        this.sweepProperties = sweepProperties;
+        this.daemonProperties = daemonProperties;
+        this.batchProperties = batchProperties;
+        this.psplibProperties = psplibProperties;
+        this.generatorProperties = generatorProperties;
+        this.searchProperties = searchProperties;
+        this.cache = cacheProperties.toCache();
+        this.mode = mode;
+        this.rollingInterval = rollingInterval;
+    }
+    
     public static void main(String[] args) {
         SpringApplication.run(AgeOfEmpiresApplication.class, args);
     }
 
     @Override
     public void run(String... args) throws Exception {
+        if (mode.equals("sweep")) {
+            runSweep();
+            return;
+        }
+        if (mode.equals("daemon")) {
+            runDaemon();
+            return;
+        }
+        if (mode.equals("rolling")) {
+            runRolling();
+            return;
+        }
+        if (mode.equals("export")) {
+            new ModelBatch(solverProperties.toProfile(), batchProperties.getConcurrency())
+                .export(sweepProperties.toScenarios(), batchProperties.directoryPath());
+            return;
+        }
+        if (mode.equals("psplib")) {
+            runPsplib();
+            return;
+        }
+        if (mode.equals("search")) {
+            runSearch();
+            return;
+        }
+        if (mode.equals("scale")) {
+            new ScalingStudy(generatorProperties.toGenerator(), solverProperties.toProfile())
+                .run(generatorProperties.getScales());
+            return;
+        }
+        if (mode.equals("batch")) {
+            new ModelBatch(solverProperties.toProfile(), batchProperties.getConcurrency())
+                .run(batchProperties.directoryPath(), batchProperties.outputPath());
+            return;
+        }
+        
         System.out.println("==============================================");
         System.out.println("  Age of Empires - RCPSP Optimizer (CP-SAT)");
         System.out.println("  Objetivo: Alcanzar Castle Age en ≤15 min");
@@ -29,8 +122,36 @@ public class AgeOfEmpiresApplication implements CommandLineRunner {
         RCPSPModel rcpspModel = new RCPSPModel(1200); // 15 minutos máximo
         rcpspModel.buildModel();
         
-        CPSATSolver solver = new CPSATSolver(rcpspModel);
-        List<String> optimalPlan = solver.solve();
+        SolverResult result;
+        if (solverProperties.isDecompose()) {
+            SolverProfile profile = solverProperties.toProfile();
+            PhaseDecompositionSolver decomposition = new PhaseDecompositionSolver(
+                rcpspModel, profile, solverProperties.isRefine() ? profile : null);
+            result = decomposition.solve();
+            System.out.println("Descomposición por edades: " + result);
+        } else {
+            CPSATSolver solver = new CPSATSolver(rcpspModel);
+            solver.setProfile(solverProperties.toProfile());
+            solver.setWarmStart(true);
+            solver.setLexicographic(solverProperties.isLexicographic());
+            solver.setDecideAllocation(solverProperties.isDecideAllocation());
+            solver.setCache(cache);
+            result = solver.solveSchedule(incumbent -> {
+                System.out.println("  → " + incumbent);
+                return true;
+            });
+            System.out.println("Resultado: " + result);
+        }
+        
+        if (solverProperties.isLns() && result.hasSolution()) {
+            SolverProfile neighbourhood = solverProperties.toProfile();
+            neighbourhood.setMaxTimeInSeconds(Math.min(2.0, neighbourhood.getMaxTimeInSeconds()));
+            LargeNeighbourhoodSearch lns = new LargeNeighbourhoodSearch(
+                rcpspModel, neighbourhood, solverProperties.getLnsThreads());
+            result = lns.improve(result, solverProperties.getLnsBudget());
+            System.out.println("Resultado LNS: " + result);
+        }
+        List<String> optimalPlan = result.getPlan();
         
         if (optimalPlan.isEmpty()) {
             System.out.println("\n✗ No se pudo encontrar plan óptimo.");
@@ -41,8 +162,10 @@ public class AgeOfEmpiresApplication implements CommandLineRunner {
         // FASE 2: Simular el plan óptimo
         System.out.println("\n\n>>> FASE 2: Simulando plan óptimo");
         GameState simState = new GameState();
+        simState.setAllocationPlan(result.getAllocation());
         DiscreteEventSimulator simulator = new DiscreteEventSimulator(simState);
-        simulator.executePlan(optimalPlan);
+        simulator.executeSchedule(optimalPlan,
+                                  CPSATSolver.planStartTimes(rcpspModel.getGraph(), result.getStartTimes()));
         
         GameState optimalState = simulator.getState();
         boolean success = optimalState.hasReachedCastleAge() && 
@@ -81,6 +204,156 @@ public class AgeOfEmpiresApplication implements CommandLineRunner {
         System.out.println("Objetivo cumplido: " + (success ? "✓ SÍ" : "✗ NO"));
         System.out.println("==============================================");
     }
+    /**
+     * Modo barrido: resuelve la rejilla de escenarios en un solo proceso
+     */
+    private void runSweep() {
+        ScenarioSweep sweep = new ScenarioSweep(solverProperties.toProfile(),
+                                                sweepProperties.getConcurrency());
+        sweep.setCache(cache);
+        sweep.run(sweepProperties.toScenarios());
+    }
+    
+    /**
+     * Modo búsqueda: A* sobre el simulador y rollouts Monte Carlo sobre el
+     * plan de CP-SAT, frente a CP-SAT + simulación, comparando tiempo
+     * simulado hasta Castillos y coste de cómputo
+     */
+    private void runSearch() {
+        RCPSPModel rcpspModel = new RCPSPModel(1200);
+        rcpspModel.buildModel();
+        
+        AStarPlanner planner = searchProperties.toPlanner(rcpspModel);
+        SearchResult search = planner.search();
+        System.out.println("A*: " + search);
+        System.out.println("Plan A*: " + search.getPlan());
+        
+        CPSATSolver solver = new CPSATSolver(rcpspModel);
+        solver.setProfile(solverProperties.toProfile());
+        solver.setVerbose(false);
+        solver.setWarmStart(true);
+        SolverResult result = solver.solveSchedule();
+        long cpSimulated = -1;
+        if (result.hasSolution()) {
+            DiscreteEventSimulator simulator = new DiscreteEventSimulator(new GameState());
+            simulator.setVerbose(false);
+            simulator.executeSchedule(result.getPlan(),
+                                      CPSATSolver.planStartTimes(rcpspModel.getGraph(), result.getStartTimes()));
+            cpSimulated = simulator.getState().getCurrentTime();
+        }
+        
+        // Rollouts: semillas = plan de CP-SAT y órdenes completos de la biblioteca
+        RolloutPlanner rollouts = searchProperties.toRolloutPlanner();
+        rollouts.addSeed(result.getPlan());
+        for (List<BuildAction> order : List.of(BuildOrderLibrary.getBuildOrder_22Feudal(),
+                                               BuildOrderLibrary.getBuildOrder_2Lumber(),
+                                               BuildOrderLibrary.getBuildOrder_25Population())) {
+            List<String> actions = order.stream().map(BuildAction::getAction).toList();
+            if (actions.contains("ADVANCE_CASTLE")) {
+                rollouts.addSeed(actions);
+            }
+        }
+        RolloutResult rollout = null;
+        if (result.hasSolution()) {
+            rollout = rollouts.run();
+            System.out.println("Rollouts: " + rollout);
+            System.out.println("Plan rollouts: " + rollout.getPlan());
+        }
+        
+        System.out.println("\n=== Comparación ===");
+        System.out.println(String.format("%-8s | %-14s %-10s %-12s", "Método", "Castillos (sim)", "Tiempo", "Nodos/s"));
+        System.out.println(String.format("%-8s | %-14s %-10s %-12.0f", "A*",
+                                         search.hasSolution() ? search.getMakespan() + "s" : "-",
+                                         String.format("%.2fs", search.getWallTime()), search.getNodesPerSecond()));
+        System.out.println(String.format("%-8s | %-14s %-10s %-12s", "CP-SAT",
+                                         cpSimulated >= 0 ? cpSimulated + "s" : "-",
+                                         String.format("%.2fs", result.getWallTime()), "-"));
+        if (rollout != null) {
+            System.out.println(String.format("%-8s | %-14s %-10s %-12.0f", "Rollouts",
+                                             rollout.hasSolution() ? rollout.getMakespan() + "s" : "-",
+                                             String.format("%.2fs", rollout.getWallTime()),
+                                             rollout.getRolloutsPerSecond()));
+        }
+    }
+    
+    private void runPsplib() throws Exception {
+        Map<String, Integer> bestKnown = new HashMap<>();
+        List<Path> files = new ArrayList<>(PsplibReader.expand(psplibProperties.getFiles()));
+        String reference = psplibProperties.getReference();
+        if (reference != null && !reference.isBlank()) {
+            Path referencePath = Path.of(reference);
+            bestKnown.putAll(PsplibReader.readReference(referencePath));
+            files.removeIf(file -> file.toAbsolutePath().equals(referencePath.toAbsolutePath()));
+        }
+        new PsplibBenchmark(solverProperties.toProfile(), bestKnown).run(files);
+    }
+    
+    /**
+     * Modo horizonte deslizante: se simula el plan paso a paso y cada
+     * 'rollingInterval' segundos de juego se re-planifica desde el estado real
+     */
+    private void runRolling() {
+        RCPSPModel rcpspModel = new RCPSPModel(1200);
+        rcpspModel.buildModel();
+        
+        RollingHorizonPlanner planner = new RollingHorizonPlanner(rcpspModel, SolverProfile.latency());
+        SolverResult initial = planner.solveInitial(solverProperties.toProfile());
+        System.out.println("Plan inicial: " + initial);
+        if (!initial.hasSolution()) {
+            return;
+        }
+        
+        GameState state = new GameState();
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(state);
+        Set<String> executed = new HashSet<>();
+        int nextReplan = rollingInterval;
+        
+        while (true) {
+            // Siguiente tarea pendiente según el plan vigente
+            String next = null;
+            for (Map.Entry<String, Long> entry : planner.getSchedule().entrySet()) {
+                if (!executed.contains(entry.getKey())
+                        && (next == null || entry.getValue() < planner.getSchedule().get(next))) {
+                    next = entry.getKey();
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            
+            String action = CPSATSolver.taskTypeToAction(rcpspModel.getGraph().getTask(next));
+            if (action != null) {
+                simulator.executeStep(action);
+            }
+            executed.add(next);
+            
+            if (state.getCurrentTime() >= nextReplan && executed.size() < rcpspModel.getGraph().size()) {
+                SolverResult replanned = planner.replan(state, executed);
+                System.out.println(String.format(">>> Re-planificación #%d en t=%ds: %s (makespan previsto %ds)",
+                                                 planner.getReplanCount(), state.getCurrentTime(),
+                                                 replanned, planner.getMakespan()));
+                nextReplan = state.getCurrentTime() + rollingInterval;
+            }
+        }
+        
+        System.out.println("\nEdad final: " + state.getCurrentAge().getDisplayName()
+                         + " en t=" + state.getCurrentTime() + "s tras "
+                         + planner.getReplanCount() + " re-planificaciones");
+    }
+    
+    /**
+     * Modo servicio: el proceso queda residente atendiendo peticiones HTTP locales
+     */
+    private void runDaemon() throws Exception {
+        PlanningServer server = new PlanningServer(daemonProperties.getHost(),
+                                                   daemonProperties.getPort(),
+                                                   daemonProperties.getMaxConcurrentSolves(),
+                                                   solverProperties.toProfile());
+        server.setCache(cache);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+    }
+    
     /*
     private void compareBuildOrder(String name, List<BuildAction> buildActions, long optimalTime) {
         System.out.println("\n--- Evaluando: " + name + " ---");
@@ -3,8 +3,17 @@ package com.aoe.planner.algorithm;
 import com.aoe.planner.model.*;
 import java.util.*;
 
+/**
+ * Heurística h(s) para la búsqueda: camino crítico de las tareas restantes
+ * más el tiempo estimado para reunir los recursos que faltan.
+ * Guarda un CriticalPathEngine por grafo, así que cada instancia debe usarse
+ * desde un solo hilo.
+ */
 public class CPMHeuristic {
     
+    private CriticalPathEngine engine;
+    private CompactGraph engineGraph;
+    
     /**
      * Calcula la heurística h(s) usando el método de Critical Path Method (CPM)
      * Estima el tiempo mínimo restante para alcanzar la Edad de los Castillos
@@ -14,59 +23,44 @@ public class CPMHeuristic {
             return 0.0;
         }
         
-        // Identificar tareas restantes necesarias
-        Set<String> completed = state.getCompletedTasks();
-        List<Task> remainingTasks = new ArrayList<>();
-        
-        for (Task task : graph.getAllTasks()) {
-            if (!completed.contains(task.getId())) {
-                remainingTasks.add(task);
-            }
+        // Motor CPM memorizado: entre estados vecinos solo cambian unas pocas
+        // tareas completadas y se recalculan solo las afectadas
+        CompactGraph compact = graph.compact();
+        if (engine == null || engineGraph != compact) {
+            engine = new CriticalPathEngine(compact);
+            engineGraph = compact;
+        }
+        CompletedTasks completed = state.getCompleted();
+        if (completed.getIndex() == compact) {
+            engine.sync(completed.getBits());
+        } else {
+            engine.sync(state.getCompletedTasks());
         }
         
-        if (remainingTasks.isEmpty()) {
+        if (engine.remainingCount() == 0) {
             return 0.0;
         }
         
-        // Construir grafo parcial de precedencias
-        Map<String, Integer> earliestStart = new HashMap<>();
-        Map<String, Integer> latestStart = new HashMap<>();
+        // Duración del camino crítico de las tareas restantes
+        int criticalPathLength = engine.projectLength();
         
-        // Calcular tiempo más temprano de inicio (forward pass)
-        for (Task task : remainingTasks) {
-            int maxPredFinish = 0;
-            for (String predId : task.getPredecessorIds()) {
-                if (!completed.contains(predId)) {
-                    Integer predStart = earliestStart.get(predId);
-                    if (predStart != null) {
-                        Task predTask = graph.getTask(predId);
-                        maxPredFinish = Math.max(maxPredFinish, 
-                                                predStart + predTask.getDuration());
-                    }
-                }
+        // Recursos totales necesarios para las tareas restantes
+        Resource totalNeeded = new Resource();
+        for (int i = 0; i < compact.size(); i++) {
+            if (!engine.isCompleted(i)) {
+                totalNeeded.addFood(compact.food(i));
+                totalNeeded.addWood(compact.wood(i));
+                totalNeeded.addGold(compact.gold(i));
             }
-            earliestStart.put(task.getId(), maxPredFinish);
-        }
-        
-        // Estimar duración del camino crítico
-        int criticalPathLength = 0;
-        for (Task task : remainingTasks) {
-            int taskFinish = earliestStart.getOrDefault(task.getId(), 0) + task.getDuration();
-            criticalPathLength = Math.max(criticalPathLength, taskFinish);
         }
         
         // Agregar estimación de tiempo para recolectar recursos faltantes
-        double resourceGatheringTime = estimateResourceGatheringTime(state, remainingTasks);
+        double resourceGatheringTime = estimateResourceGatheringTime(state, totalNeeded);
         
         return criticalPathLength + resourceGatheringTime;
     }
     
-    private double estimateResourceGatheringTime(GameState state, List<Task> tasks) {
-        // Calcular recursos totales necesarios
-        Resource totalNeeded = new Resource();
-        for (Task task : tasks) {
-            totalNeeded.add(task.getCost());
-        }
+    private double estimateResourceGatheringTime(GameState state, Resource totalNeeded) {
         
         // Ajustar por recursos ya disponibles
         Resource deficit = new Resource(
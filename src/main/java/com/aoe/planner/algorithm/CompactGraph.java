@@ -0,0 +1,256 @@
+package com.aoe.planner.algorithm;
+
+import com.aoe.planner.model.Task;
+import com.aoe.planner.model.TaskIndex;
+import com.aoe.planner.model.TaskType;
+
+import java.util.*;
+
+/**
+ * Forma congelada e indexada de un PrecedenceGraph.
+ *
+ * - Cada id de tarea se interna a un entero denso; los índices siguen el
+ *   orden topológico, así que una pasada hacia adelante es un bucle 0..n-1
+ *   y una hacia atrás, n-1..0
+ * - Predecesores y sucesores en formato CSR: los de la tarea i ocupan
+ *   [predecessorStart(i), predecessorStart(i + 1)) de 'predecessors'
+ * - Duración, coste, uso del TC y tipo en columnas primitivas
+ * - Ancestros transitivos como un BitSet por tarea
+ * - Reducción transitiva: se marcan las aristas p → i implicadas por otro
+ *   camino (p es ancestro de otro predecesor de i), que sobran en el modelo
+ * Los recorridos no crean objetos ni calculan hashes de cadenas; los ids solo
+ * se usan en la frontera (indexOf / id). Predecesores que no están en el grafo
+ * se ignoran (se consideran ya terminados).
+ */
+public final class CompactGraph implements TaskIndex {
+
+    private static final TaskType[] TYPES = TaskType.values();
+
+    private final Task[] tasks;
+    private final String[] ids;
+    private final Map<String, Integer> index;
+
+    private final int[] predecessorStart;
+    private final int[] predecessors;
+    private final int[] successorStart;
+    private final int[] successors;
+
+    private final int[] durations;
+    private final int[] food;
+    private final int[] wood;
+    private final int[] gold;
+    private final boolean[] townCenter;
+    private final byte[] types;
+
+    private final BitSet[] ancestors;
+    private final BitSet redundant; // por posición en 'predecessors'
+    private final int redundantCount;
+
+    CompactGraph(Map<String, Task> taskMap, Map<String, List<String>> adjacency) {
+        int n = taskMap.size();
+        List<String> order = topologicalIds(taskMap, adjacency);
+        this.tasks = new Task[n];
+        this.ids = new String[n];
+        this.index = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            ids[i] = order.get(i);
+            tasks[i] = taskMap.get(ids[i]);
+            index.put(ids[i], i);
+        }
+
+        this.durations = new int[n];
+        this.food = new int[n];
+        this.wood = new int[n];
+        this.gold = new int[n];
+        this.townCenter = new boolean[n];
+        this.types = new byte[n];
+        for (int i = 0; i < n; i++) {
+            Task task = tasks[i];
+            durations[i] = task.getDuration();
+            food[i] = task.getCost().getFood();
+            wood[i] = task.getCost().getWood();
+            gold[i] = task.getCost().getGold();
+            townCenter[i] = task.requiresTownCenter();
+            types[i] = (byte) task.getType().ordinal();
+        }
+
+        // CSR de predecesores (ordenados por índice) y de sucesores (en orden de inserción)
+        this.predecessorStart = new int[n + 1];
+        int[][] predecessorLists = new int[n][];
+        for (int i = 0; i < n; i++) {
+            predecessorLists[i] = tasks[i].getPredecessorIds().stream()
+                .filter(index::containsKey).mapToInt(index::get).sorted().toArray();
+            predecessorStart[i + 1] = predecessorStart[i] + predecessorLists[i].length;
+        }
+        this.predecessors = new int[predecessorStart[n]];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(predecessorLists[i], 0, predecessors, predecessorStart[i], predecessorLists[i].length);
+        }
+
+        this.successorStart = new int[n + 1];
+        this.successors = new int[predecessors.length];
+        for (int i = 0; i < n; i++) {
+            List<String> next = adjacency.getOrDefault(ids[i], Collections.emptyList());
+            int count = 0;
+            for (String succId : next) {
+                Integer j = index.get(succId);
+                if (j != null) {
+                    successors[successorStart[i] + count++] = j;
+                }
+            }
+            successorStart[i + 1] = successorStart[i] + count;
+        }
+
+        // Ancestros: unión de los de cada predecesor, en orden topológico
+        this.ancestors = new BitSet[n];
+        for (int i = 0; i < n; i++) {
+            BitSet result = new BitSet(i);
+            for (int k = predecessorStart[i]; k < predecessorStart[i + 1]; k++) {
+                result.set(predecessors[k]);
+                result.or(ancestors[predecessors[k]]);
+            }
+            ancestors[i] = result;
+        }
+
+        // Reducción transitiva: p → i sobra si p ya es ancestro de otro predecesor de i
+        this.redundant = new BitSet(predecessors.length);
+        BitSet implied = new BitSet(n);
+        for (int i = 0; i < n; i++) {
+            implied.clear();
+            for (int k = predecessorStart[i]; k < predecessorStart[i + 1]; k++) {
+                implied.or(ancestors[predecessors[k]]);
+            }
+            for (int k = predecessorStart[i]; k < predecessorStart[i + 1]; k++) {
+                if (implied.get(predecessors[k])) {
+                    redundant.set(k);
+                }
+            }
+        }
+        this.redundantCount = redundant.cardinality();
+    }
+
+    /**
+     * Kahn con cola FIFO sembrada en el orden de iteración del mapa de tareas,
+     * igual que el orden topológico histórico de PrecedenceGraph
+     */
+    private static List<String> topologicalIds(Map<String, Task> taskMap, Map<String, List<String>> adjacency) {
+        Map<String, Integer> inDegree = new HashMap<>();
+        for (Task task : taskMap.values()) {
+            int degree = 0;
+            for (String predId : task.getPredecessorIds()) {
+                if (taskMap.containsKey(predId)) {
+                    degree++;
+                }
+            }
+            inDegree.put(task.getId(), degree);
+        }
+
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        for (String taskId : taskMap.keySet()) {
+            if (inDegree.get(taskId) == 0) {
+                queue.add(taskId);
+            }
+        }
+
+        List<String> sorted = new ArrayList<>(taskMap.size());
+        while (!queue.isEmpty()) {
+            String taskId = queue.poll();
+            sorted.add(taskId);
+            for (String successor : adjacency.getOrDefault(taskId, Collections.emptyList())) {
+                Integer degree = inDegree.get(successor);
+                if (degree != null) {
+                    inDegree.put(successor, degree - 1);
+                    if (degree == 1) {
+                        queue.add(successor);
+                    }
+                }
+            }
+        }
+        if (sorted.size() != taskMap.size()) {
+            throw new IllegalStateException("El grafo de precedencias tiene ciclos ("
+                                            + (taskMap.size() - sorted.size()) + " tareas sin ordenar)");
+        }
+        return sorted;
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Índice de la tarea, o -1 si no está en el grafo
+     */
+    @Override
+    public int indexOf(String taskId) {
+        Integer i = index.get(taskId);
+        return i == null ? -1 : i;
+    }
+
+    @Override
+    public String id(int i) { return ids[i]; }
+    public Task task(int i) { return tasks[i]; }
+    public int duration(int i) { return durations[i]; }
+    public int food(int i) { return food[i]; }
+    public int wood(int i) { return wood[i]; }
+    public int gold(int i) { return gold[i]; }
+    public boolean requiresTownCenter(int i) { return townCenter[i]; }
+    public TaskType type(int i) { return TYPES[types[i]]; }
+
+    // Predecesores de i: predecessor(k) para k en [predecessorStart(i), predecessorStart(i + 1))
+    public int predecessorStart(int i) { return predecessorStart[i]; }
+    public int predecessor(int k) { return predecessors[k]; }
+
+    // Sucesores de i: successor(k) para k en [successorStart(i), successorStart(i + 1))
+    public int successorStart(int i) { return successorStart[i]; }
+    public int successor(int k) { return successors[k]; }
+
+    /**
+     * ¿La arista en la posición k de 'predecessors' está implicada por otro camino?
+     */
+    public boolean isRedundant(int k) {
+        return redundant.get(k);
+    }
+
+    public int edgeCount() {
+        return predecessors.length;
+    }
+
+    public int redundantEdgeCount() {
+        return redundantCount;
+    }
+
+    public int successorCount(int i) {
+        return successorStart[i + 1] - successorStart[i];
+    }
+
+    /**
+     * ¿'before' debe terminar (transitivamente) antes de que empiece 'after'?
+     */
+    public boolean precedes(int before, int after) {
+        return ancestors[after].get(before);
+    }
+
+    /**
+     * Igual que precedes(int, int) por id; false si alguna tarea no está en el grafo
+     */
+    public boolean precedes(String before, String after) {
+        int b = indexOf(before);
+        int a = indexOf(after);
+        return b >= 0 && a >= 0 && ancestors[a].get(b);
+    }
+
+    /**
+     * Ancestros de i (no modificar)
+     */
+    public BitSet ancestors(int i) {
+        return ancestors[i];
+    }
+
+    /**
+     * Tareas en orden topológico (el de los índices)
+     */
+    public List<Task> tasksInOrder() {
+        return Collections.unmodifiableList(Arrays.asList(tasks));
+    }
+}
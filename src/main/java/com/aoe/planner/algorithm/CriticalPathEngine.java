@@ -0,0 +1,287 @@
+package com.aoe.planner.algorithm;
+
+import java.util.*;
+
+/**
+ * Motor CPM (método del camino crítico) sobre un CompactGraph.
+ *
+ * - Pasada hacia adelante en orden topológico: ES = max(liberación, EF de los
+ *   predecesores pendientes), EF = ES + duración
+ * - Pasada hacia atrás: LF = min(plazo, horizonte, LS de los sucesores
+ *   pendientes), LS = LF - duración; holgura = LS - ES
+ * - Tareas completadas: no cuentan (ES = EF = 0) ni limitan a nadie
+ * - Tareas fijadas: ES = LS = inicio fijado
+ * El horizonte es la duración del proyecto (máximo EF) salvo que se fije.
+ *
+ * Los resultados se memorizan: cambiar duraciones, completar tareas, etc.
+ * solo marca como sucias las tareas afectadas, y la siguiente consulta
+ * propaga desde ellas (hacia sus sucesores en la pasada hacia adelante y
+ * hacia sus predecesores en la hacia atrás) en lugar de recalcular todo.
+ * Si cambia el horizonte, la pasada hacia atrás se rehace entera.
+ * No es thread-safe: cada hilo debe usar su propio motor.
+ */
+public final class CriticalPathEngine {
+
+    private final CompactGraph graph;
+    private final int n;
+
+    // Entradas
+    private final int[] duration;
+    private final int[] release;
+    private final int[] deadline;
+    private final int[] fixedStart; // -1 = libre
+    private final BitSet completed;
+    private int horizon = -1; // -1 = duración del proyecto
+
+    // Resultados
+    private final int[] es;
+    private final int[] ef;
+    private final int[] ls;
+    private int projectLength;
+    private int appliedHorizon = -1;
+
+    private final BitSet forwardDirty;
+    private final BitSet backwardDirty;
+
+    public CriticalPathEngine(CompactGraph graph) {
+        this.graph = graph;
+        this.n = graph.size();
+        this.duration = new int[n];
+        this.release = new int[n];
+        this.deadline = new int[n];
+        this.fixedStart = new int[n];
+        this.completed = new BitSet(n);
+        this.es = new int[n];
+        this.ef = new int[n];
+        this.ls = new int[n];
+        this.forwardDirty = new BitSet(n);
+        this.backwardDirty = new BitSet(n);
+        for (int i = 0; i < n; i++) {
+            duration[i] = graph.duration(i);
+        }
+        Arrays.fill(deadline, Integer.MAX_VALUE);
+        Arrays.fill(fixedStart, -1);
+        forwardDirty.set(0, n);
+    }
+
+    // Entradas (cada cambio solo marca tareas sucias)
+
+    public void setDuration(int task, int value) {
+        if (duration[task] != value) {
+            duration[task] = value;
+            forwardDirty.set(task);
+            backwardDirty.set(task);
+        }
+    }
+
+    /**
+     * Inicio mínimo de la tarea (además de sus precedencias)
+     */
+    public void setReleaseTime(int task, int time) {
+        if (release[task] != time) {
+            release[task] = time;
+            forwardDirty.set(task);
+        }
+    }
+
+    /**
+     * Fin máximo de la tarea (además del horizonte y de sus sucesores)
+     */
+    public void setDeadline(int task, int time) {
+        if (deadline[task] != time) {
+            deadline[task] = time;
+            backwardDirty.set(task);
+        }
+    }
+
+    public void fix(int task, int start) {
+        if (fixedStart[task] != start) {
+            fixedStart[task] = start;
+            forwardDirty.set(task);
+            backwardDirty.set(task);
+        }
+    }
+
+    /**
+     * Horizonte de la pasada hacia atrás; -1 para usar la duración del proyecto
+     */
+    public void setHorizon(int horizon) {
+        this.horizon = horizon;
+    }
+
+    public void setCompleted(int task, boolean done) {
+        if (completed.get(task) == done) {
+            return;
+        }
+        completed.set(task, done);
+        forwardDirty.set(task);
+        backwardDirty.set(task);
+        markPredecessors(task);
+    }
+
+    /**
+     * Ajusta las tareas completadas a 'completedIds' tocando solo las que cambian
+     */
+    public void sync(Set<String> completedIds) {
+        BitSet target = new BitSet(n);
+        for (String taskId : completedIds) {
+            int i = graph.indexOf(taskId);
+            if (i >= 0) {
+                target.set(i);
+            }
+        }
+        sync(target);
+    }
+
+    /**
+     * Igual que sync(Set) con las completadas ya como bits sobre los índices
+     * de este grafo: la diferencia se calcula por palabras de 64 bits
+     */
+    public void sync(BitSet completedBits) {
+        BitSet target = (BitSet) completedBits.clone();
+        target.xor(completed);
+        for (int i = target.nextSetBit(0); i >= 0; i = target.nextSetBit(i + 1)) {
+            setCompleted(i, !completed.get(i));
+        }
+    }
+
+    // Resultados
+
+    public int earliestStart(int task) { evaluate(); return es[task]; }
+    public int earliestFinish(int task) { evaluate(); return ef[task]; }
+    public int latestStart(int task) { evaluate(); return ls[task]; }
+    public int latestFinish(int task) { evaluate(); return ls[task] + duration[task]; }
+    public int slack(int task) { evaluate(); return ls[task] - es[task]; }
+    public boolean isCompleted(int task) { return completed.get(task); }
+
+    /**
+     * Máximo EF de las tareas pendientes (0 si no queda ninguna)
+     */
+    public int projectLength() {
+        evaluate();
+        return projectLength;
+    }
+
+    public int remainingCount() {
+        return n - completed.cardinality();
+    }
+
+    /**
+     * Una cadena crítica, desde su primera tarea hasta la que termina el proyecto:
+     * se retrocede siempre por el predecesor pendiente cuyo fin fija el inicio
+     */
+    public List<Integer> criticalPath() {
+        evaluate();
+        int last = -1;
+        for (int i = 0; i < n; i++) {
+            if (!completed.get(i) && (last < 0 || ef[i] > ef[last])) {
+                last = i;
+            }
+        }
+        LinkedList<Integer> path = new LinkedList<>();
+        for (int task = last; task >= 0; ) {
+            path.addFirst(task);
+            int next = -1;
+            for (int k = graph.predecessorStart(task); k < graph.predecessorStart(task + 1); k++) {
+                int pred = graph.predecessor(k);
+                if (!completed.get(pred) && ef[pred] == es[task] && fixedStart[task] < 0) {
+                    next = pred;
+                    break;
+                }
+            }
+            task = next;
+        }
+        return path;
+    }
+
+    // Propagación
+
+    private void evaluate() {
+        if (!forwardDirty.isEmpty()) {
+            forwardPass();
+        }
+        int h = horizon >= 0 ? horizon : projectLength;
+        if (h != appliedHorizon) {
+            appliedHorizon = h;
+            backwardDirty.set(0, n);
+        }
+        if (!backwardDirty.isEmpty()) {
+            backwardPass(h);
+        }
+    }
+
+    private void forwardPass() {
+        boolean lengthMayDrop = false;
+        for (int i = forwardDirty.nextSetBit(0); i >= 0; i = forwardDirty.nextSetBit(i + 1)) {
+            int start;
+            int finish;
+            if (completed.get(i)) {
+                start = 0;
+                finish = 0;
+            } else if (fixedStart[i] >= 0) {
+                start = fixedStart[i];
+                finish = start + duration[i];
+            } else {
+                start = release[i];
+                for (int k = graph.predecessorStart(i); k < graph.predecessorStart(i + 1); k++) {
+                    start = Math.max(start, ef[graph.predecessor(k)]);
+                }
+                finish = start + duration[i];
+            }
+            lengthMayDrop |= ef[i] == projectLength && finish < ef[i];
+            es[i] = start;
+            if (ef[i] != finish) {
+                ef[i] = finish;
+                for (int k = graph.successorStart(i); k < graph.successorStart(i + 1); k++) {
+                    forwardDirty.set(graph.successor(k));
+                }
+            }
+            if (!completed.get(i)) {
+                projectLength = Math.max(projectLength, finish);
+            }
+        }
+        forwardDirty.clear();
+
+        // Solo si bajó el EF de la tarea que marcaba la duración hay que buscar el nuevo máximo
+        if (lengthMayDrop) {
+            projectLength = 0;
+            for (int i = 0; i < n; i++) {
+                if (!completed.get(i)) {
+                    projectLength = Math.max(projectLength, ef[i]);
+                }
+            }
+        }
+    }
+
+    private void backwardPass(int h) {
+        for (int i = backwardDirty.previousSetBit(n - 1); i >= 0; i = backwardDirty.previousSetBit(i - 1)) {
+            int start;
+            if (completed.get(i)) {
+                start = es[i];
+            } else if (fixedStart[i] >= 0) {
+                start = fixedStart[i];
+            } else {
+                int finish = Math.min(h, deadline[i]);
+                for (int k = graph.successorStart(i); k < graph.successorStart(i + 1); k++) {
+                    int successor = graph.successor(k);
+                    if (!completed.get(successor)) {
+                        finish = Math.min(finish, ls[successor]);
+                    }
+                }
+                start = finish - duration[i];
+            }
+            backwardDirty.clear(i);
+            if (ls[i] != start) {
+                ls[i] = start;
+                markPredecessors(i);
+            }
+        }
+        backwardDirty.clear();
+    }
+
+    private void markPredecessors(int task) {
+        for (int k = graph.predecessorStart(task); k < graph.predecessorStart(task + 1); k++) {
+            backwardDirty.set(graph.predecessor(k));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.aoe.planner.algorithm;
 
 import com.aoe.planner.model.Task;
+import com.aoe.planner.model.RenewableResource;
 import com.aoe.planner.model.ResourceConstraint;
 import java.util.*;
 
@@ -8,15 +9,19 @@ public class PrecedenceGraph {
     private Map<String, Task> tasks;
     private Map<String, List<String>> adjacencyList;
     private List<ResourceConstraint> resourceConstraints;
+    private List<RenewableResource> renewableResources;
+    private CompactGraph compact; // forma congelada; se invalida al añadir tareas
     
     public PrecedenceGraph() {
         this.tasks = new HashMap<>();
         this.adjacencyList = new HashMap<>();
         this.resourceConstraints = new ArrayList<>();
+        this.renewableResources = new ArrayList<>();
     }
     
     public void addTask(Task task) {
         tasks.put(task.getId(), task);
+        compact = null;
         adjacencyList.putIfAbsent(task.getId(), new ArrayList<>());
         
         for (String predId : task.getPredecessorIds()) {
@@ -29,6 +34,16 @@ public class PrecedenceGraph {
         resourceConstraints.add(constraint);
     }
     
+    /**
+     * Recurso renovable compartido; las tareas declaran su demanda con Task.setRenewableDemand
+     */
+    public void addRenewableResource(RenewableResource resource) {
+        renewableResources.add(resource);
+    }
+    
+    /**
+     * Recorre todas las tareas; en bucles de búsqueda o despacho usar ReadyQueue
+     */
     public List<Task> getAvailableTasks(Set<String> completedTasks) {
         List<Task> available = new ArrayList<>();
         for (Task task : tasks.values()) {
@@ -49,39 +64,90 @@ public class PrecedenceGraph {
         return tcTasks;
     }
     
-    public List<Task> getTopologicalOrder() {
-        Map<String, Integer> inDegree = new HashMap<>();
-        for (String taskId : tasks.keySet()) {
-            inDegree.put(taskId, 0);
+    /**
+     * Forma compacta indexada por enteros (calculada una vez y reutilizada
+     * hasta el siguiente addTask); las tareas no deben cambiar sus predecesores
+     * después de añadirse al grafo
+     */
+    public synchronized CompactGraph compact() {
+        if (compact == null) {
+            compact = new CompactGraph(tasks, adjacencyList);
         }
-        
-        for (Task task : tasks.values()) {
-            for (String predId : task.getPredecessorIds()) {
-                inDegree.put(task.getId(), inDegree.get(task.getId()) + 1);
+        return compact;
+    }
+    
+    public List<Task> getTopologicalOrder() {
+        return new ArrayList<>(compact().tasksInOrder());
+    }
+    
+    /**
+     * Cierre transitivo de predecesores: para cada tarea, todas las
+     * tareas que deben terminar antes de que pueda empezar
+     */
+    public Map<String, Set<String>> getTransitivePredecessors() {
+        CompactGraph graph = compact();
+        Map<String, Set<String>> ancestors = new HashMap<>();
+        for (int i = 0; i < graph.size(); i++) {
+            BitSet bits = graph.ancestors(i);
+            Set<String> result = new HashSet<>();
+            for (int a = bits.nextSetBit(0); a >= 0; a = bits.nextSetBit(a + 1)) {
+                result.add(graph.id(a));
             }
+            ancestors.put(graph.id(i), result);
         }
+        return ancestors;
+    }
+    
+    /**
+     * Cadenas de tareas intercambiables: mismo tipo, duración, coste, uso del TC
+     * y sucesores, con los ancestros de cada una contenidos en los de la siguiente.
+     * En cualquier plan se pueden permutar sus inicios para que sigan el orden
+     * de la cadena, así que ordenarlas no pierde soluciones.
+     * Tareas con predecesores idénticos quedan en la misma cadena, ordenadas por id.
+     */
+    public List<List<String>> getInterchangeableChains() {
+        Map<String, Set<String>> ancestors = getTransitivePredecessors();
         
-        Queue<String> queue = new LinkedList<>();
-        for (String taskId : inDegree.keySet()) {
-            if (inDegree.get(taskId) == 0) {
-                queue.add(taskId);
-            }
+        // Agrupar por firma
+        Map<String, List<Task>> groups = new LinkedHashMap<>();
+        for (Task task : getTopologicalOrder()) {
+            List<String> successors = new ArrayList<>(adjacencyList.getOrDefault(task.getId(), Collections.emptyList()));
+            Collections.sort(successors);
+            String signature = task.getType() + "|" + task.getDuration() + "|" + task.getCost().getFood()
+                + "/" + task.getCost().getWood() + "/" + task.getCost().getGold()
+                + "|" + task.requiresTownCenter() + "|" + task.getRenewableDemands() + "|" + successors;
+            groups.computeIfAbsent(signature, key -> new ArrayList<>()).add(task);
         }
         
-        List<Task> sorted = new ArrayList<>();
-        while (!queue.isEmpty()) {
-            String taskId = queue.poll();
-            sorted.add(tasks.get(taskId));
+        List<List<String>> chains = new ArrayList<>();
+        for (List<Task> group : groups.values()) {
+            if (group.size() < 2) {
+                continue;
+            }
+            group.sort(Comparator.comparingInt((Task t) -> ancestors.get(t.getId()).size())
+                                 .thenComparing(Task::getId));
             
-            for (String successor : adjacencyList.getOrDefault(taskId, new ArrayList<>())) {
-                inDegree.put(successor, inDegree.get(successor) - 1);
-                if (inDegree.get(successor) == 0) {
-                    queue.add(successor);
+            List<String> chain = new ArrayList<>();
+            for (Task task : group) {
+                if (!chain.isEmpty()) {
+                    String previous = chain.get(chain.size() - 1);
+                    Set<String> taskAncestors = ancestors.get(task.getId());
+                    boolean dominated = taskAncestors.containsAll(ancestors.get(previous))
+                                     && !taskAncestors.contains(previous);
+                    if (!dominated) {
+                        if (chain.size() > 1) {
+                            chains.add(chain);
+                        }
+                        chain = new ArrayList<>();
+                    }
                 }
+                chain.add(task.getId());
+            }
+            if (chain.size() > 1) {
+                chains.add(chain);
             }
         }
-        
-        return sorted;
+        return chains;
     }
     
     public Task getTask(String taskId) {
@@ -100,6 +166,10 @@ public class PrecedenceGraph {
         return resourceConstraints;
     }
     
+    public List<RenewableResource> getRenewableResources() {
+        return renewableResources;
+    }
+    
     public int size() {
         return tasks.size();
     }
@@ -0,0 +1,210 @@
+package com.aoe.planner.algorithm;
+
+import java.util.*;
+
+/**
+ * Conjunto incremental de tareas listas sobre un CompactGraph.
+ *
+ * Mantiene por tarea el número de predecesores sin completar; completar una
+ * tarea solo recorre sus sucesores (O(grado de salida)) y las que llegan a
+ * cero entran en un montículo binario de índices ordenado por una prioridad
+ * intercambiable (menor primero, empates por orden topológico), así que
+ * sacar la siguiente es O(log n). Sustituye a los recorridos completos de
+ * PrecedenceGraph.getAvailableTasks en bucles de búsqueda y despacho.
+ * Para prioridades que cambian en cada paso (p. ej. el inicio más temprano
+ * según recursos), readyTasks() expone el conjunto en orden topológico.
+ */
+public final class ReadyQueue {
+
+    /**
+     * Prioridad de una tarea por índice; se evalúa una vez, al entrar en la cola
+     */
+    @FunctionalInterface
+    public interface Priority {
+        long of(int task);
+    }
+
+    private final CompactGraph graph;
+    private final Priority priority;
+    private final int[] remaining;
+    private final BitSet ready;
+    private final BitSet completed;
+
+    // Montículo de índices con su clave y la posición de cada tarea (-1 si no está)
+    private final int[] heap;
+    private final long[] keys;
+    private final int[] position;
+    private int heapSize;
+
+    public ReadyQueue(CompactGraph graph, Priority priority) {
+        int n = graph.size();
+        this.graph = graph;
+        this.priority = priority;
+        this.remaining = new int[n];
+        this.ready = new BitSet(n);
+        this.completed = new BitSet(n);
+        this.heap = new int[n];
+        this.keys = new long[n];
+        this.position = new int[n];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < n; i++) {
+            remaining[i] = graph.predecessorStart(i + 1) - graph.predecessorStart(i);
+            if (remaining[i] == 0) {
+                push(i);
+            }
+        }
+    }
+
+    /**
+     * Orden topológico (el índice de la tarea)
+     */
+    public static Priority byIndex() {
+        return task -> task;
+    }
+
+    /**
+     * Inicio más temprano dado (p. ej. de TimeWindows o del CPM)
+     */
+    public static Priority byEarliestStart(long[] earliestStart) {
+        return task -> earliestStart[task];
+    }
+
+    /**
+     * Camino crítico: primero la tarea con más duración pendiente hasta el final del grafo
+     */
+    public static Priority byCriticalPath(CompactGraph graph) {
+        long[] tail = new long[graph.size()];
+        for (int i = graph.size() - 1; i >= 0; i--) {
+            long longest = 0;
+            for (int k = graph.successorStart(i); k < graph.successorStart(i + 1); k++) {
+                longest = Math.max(longest, tail[graph.successor(k)]);
+            }
+            tail[i] = longest + graph.duration(i);
+        }
+        return task -> -tail[task];
+    }
+
+    public boolean isEmpty() {
+        return heapSize == 0;
+    }
+
+    public int readyCount() {
+        return heapSize;
+    }
+
+    /**
+     * Tarea lista de mayor prioridad sin sacarla, o -1 si no hay ninguna
+     */
+    public int peek() {
+        return heapSize == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Saca y completa la tarea lista de mayor prioridad; -1 si no hay ninguna
+     */
+    public int poll() {
+        int task = peek();
+        if (task >= 0) {
+            complete(task);
+        }
+        return task;
+    }
+
+    /**
+     * Marca la tarea como completada (esté o no lista) y libera a sus sucesores
+     */
+    public void complete(int task) {
+        if (completed.get(task)) {
+            return;
+        }
+        completed.set(task);
+        if (position[task] >= 0) {
+            remove(task);
+        }
+        for (int k = graph.successorStart(task); k < graph.successorStart(task + 1); k++) {
+            int successor = graph.successor(k);
+            if (--remaining[successor] == 0 && !completed.get(successor)) {
+                push(successor);
+            }
+        }
+    }
+
+    public boolean isReady(int task) {
+        return ready.get(task);
+    }
+
+    public boolean isCompleted(int task) {
+        return completed.get(task);
+    }
+
+    /**
+     * Tareas listas en orden topológico (no modificar)
+     */
+    public BitSet readyTasks() {
+        return ready;
+    }
+
+    // Montículo binario
+
+    private void push(int task) {
+        ready.set(task);
+        keys[task] = priority.of(task);
+        heap[heapSize] = task;
+        position[task] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private void remove(int task) {
+        ready.clear(task);
+        int slot = position[task];
+        position[task] = -1;
+        int last = heap[--heapSize];
+        if (slot == heapSize) {
+            return;
+        }
+        heap[slot] = last;
+        position[last] = slot;
+        siftDown(slot);
+        siftUp(position[last]);
+    }
+
+    private boolean before(int a, int b) {
+        return keys[a] != keys[b] ? keys[a] < keys[b] : a < b;
+    }
+
+    private void siftUp(int slot) {
+        int task = heap[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!before(task, heap[parent])) {
+                break;
+            }
+            heap[slot] = heap[parent];
+            position[heap[slot]] = slot;
+            slot = parent;
+        }
+        heap[slot] = task;
+        position[task] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int task = heap[slot];
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], task)) {
+                break;
+            }
+            heap[slot] = heap[child];
+            position[heap[slot]] = slot;
+            slot = child;
+        }
+        heap[slot] = task;
+        position[task] = slot;
+    }
+}
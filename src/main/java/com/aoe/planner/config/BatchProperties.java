@@ -0,0 +1,37 @@
+package com.aoe.planner.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Configuración de los modos export y batch:
+ *   --planner.mode=export               (compila la rejilla de planner.sweep.* a .cpmodel)
+ *   --planner.mode=batch                (resuelve los .cpmodel con el perfil de planner.solver.*)
+ *   --planner.batch.directory=batch-models
+ *   --planner.batch.output=batch-models (respuestas .response.pb; vacío = mismo directorio)
+ *   --planner.batch.concurrency=4
+ */
+@ConfigurationProperties(prefix = "planner.batch")
+public class BatchProperties {
+
+    private String directory = "batch-models";
+    private String output;
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+
+    public Path directoryPath() {
+        return Path.of(directory);
+    }
+
+    public Path outputPath() {
+        return output == null || output.isBlank() ? directoryPath() : Path.of(output);
+    }
+
+    // Getters y setters (usados por Spring)
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+    public String getOutput() { return output; }
+    public void setOutput(String output) { this.output = output; }
+    public int getConcurrency() { return concurrency; }
+    public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+}
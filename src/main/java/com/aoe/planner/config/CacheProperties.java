@@ -0,0 +1,32 @@
+package com.aoe.planner.config;
+
+import com.aoe.planner.solver.ScheduleCache;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Configuración de la caché de planes:
+ *   --planner.cache.capacity=256        (0 = sin caché)
+ *   --planner.cache.directory=.planner-cache   (vacío = solo memoria)
+ */
+@ConfigurationProperties(prefix = "planner.cache")
+public class CacheProperties {
+
+    private int capacity = 256;
+    private String directory;
+
+    public ScheduleCache toCache() {
+        if (capacity <= 0) {
+            return null;
+        }
+        Path path = directory == null || directory.isBlank() ? null : Path.of(directory);
+        return new ScheduleCache(capacity, path);
+    }
+
+    // Getters y setters (usados por Spring)
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+}
@@ -0,0 +1,25 @@
+package com.aoe.planner.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración del modo servicio (planner.mode=daemon):
+ *   --planner.daemon.port=8080
+ *   --planner.daemon.host=127.0.0.1
+ *   --planner.daemon.max-concurrent-solves=2
+ */
+@ConfigurationProperties(prefix = "planner.daemon")
+public class DaemonProperties {
+
+    private String host = "127.0.0.1";
+    private int port = 8080;
+    private int maxConcurrentSolves = 2;
+
+    // Getters y setters (usados por Spring)
+    public String getHost() { return host; }
+    public void setHost(String host) { this.host = host; }
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+    public int getMaxConcurrentSolves() { return maxConcurrentSolves; }
+    public void setMaxConcurrentSolves(int maxConcurrentSolves) { this.maxConcurrentSolves = maxConcurrentSolves; }
+}
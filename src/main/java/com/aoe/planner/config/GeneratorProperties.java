@@ -0,0 +1,70 @@
+package com.aoe.planner.config;
+
+import com.aoe.planner.model.Resource;
+import com.aoe.planner.solver.InstanceGenerator;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.*;
+
+/**
+ * Instancias sintéticas para el estudio de escalado (planner.mode=scale):
+ *   --planner.generator.seed=42
+ *   --planner.generator.villagers=13
+ *   --planner.generator.town-centers=1
+ *   --planner.generator.houses=2
+ *   --planner.generator.buildings=4
+ *   --planner.generator.technologies=2
+ *   --planner.generator.density=0.0      (probabilidad de precedencia extra entre tareas)
+ *   --planner.generator.initial-resources=200/200/100
+ *   --planner.generator.initial-villagers=3
+ *   --planner.generator.scales=1,10,100  (factores aplicados a todos los recuentos)
+ */
+@ConfigurationProperties(prefix = "planner.generator")
+public class GeneratorProperties {
+
+    private long seed = 42;
+    private int villagers = 13;
+    private int townCenters = 1;
+    private int houses = 2;
+    private int buildings = 4;
+    private int technologies = 2;
+    private double density = 0.0;
+    private String initialResources = "200/200/100";
+    private int initialVillagers = 3;
+    private List<Integer> scales = new ArrayList<>(List.of(1, 10));
+
+    public InstanceGenerator toGenerator() {
+        InstanceGenerator generator = new InstanceGenerator(seed);
+        generator.setVillagers(villagers);
+        generator.setTownCenters(townCenters);
+        generator.setHouses(houses);
+        generator.setBuildings(buildings);
+        generator.setTechnologies(technologies);
+        generator.setPrecedenceDensity(density);
+        generator.setInitialResources(Resource.parse(initialResources));
+        generator.setInitialVillagers(initialVillagers);
+        return generator;
+    }
+
+    // Getters y setters (usados por Spring)
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+    public int getVillagers() { return villagers; }
+    public void setVillagers(int villagers) { this.villagers = villagers; }
+    public int getTownCenters() { return townCenters; }
+    public void setTownCenters(int townCenters) { this.townCenters = townCenters; }
+    public int getHouses() { return houses; }
+    public void setHouses(int houses) { this.houses = houses; }
+    public int getBuildings() { return buildings; }
+    public void setBuildings(int buildings) { this.buildings = buildings; }
+    public int getTechnologies() { return technologies; }
+    public void setTechnologies(int technologies) { this.technologies = technologies; }
+    public double getDensity() { return density; }
+    public void setDensity(double density) { this.density = density; }
+    public String getInitialResources() { return initialResources; }
+    public void setInitialResources(String initialResources) { this.initialResources = initialResources; }
+    public int getInitialVillagers() { return initialVillagers; }
+    public void setInitialVillagers(int initialVillagers) { this.initialVillagers = initialVillagers; }
+    public List<Integer> getScales() { return scales; }
+    public void setScales(List<Integer> scales) { this.scales = scales; }
+}
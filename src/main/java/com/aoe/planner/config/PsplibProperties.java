@@ -0,0 +1,24 @@
+package com.aoe.planner.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.*;
+
+/**
+ * Benchmark PSPLIB (planner.mode=psplib):
+ *   --planner.psplib.files=data/j30,data/j60/j601_1.sm  (archivos .sm o directorios)
+ *   --planner.psplib.reference=data/j30opt.sm           (mejores makespans publicados, opcional)
+ * Cada instancia se resuelve con el perfil de planner.solver.*
+ */
+@ConfigurationProperties(prefix = "planner.psplib")
+public class PsplibProperties {
+
+    private List<String> files = new ArrayList<>();
+    private String reference;
+
+    // Getters y setters (usados por Spring)
+    public List<String> getFiles() { return files; }
+    public void setFiles(List<String> files) { this.files = files; }
+    public String getReference() { return reference; }
+    public void setReference(String reference) { this.reference = reference; }
+}
@@ -0,0 +1,55 @@
+package com.aoe.planner.config;
+
+import com.aoe.planner.search.AStarPlanner;
+import com.aoe.planner.search.RolloutPlanner;
+import com.aoe.planner.solver.RCPSPModel;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Planificador A* sobre el simulador (planner.mode=search):
+ *   --planner.search.weight=2.0            (1 = A*, >1 = A* ponderado)
+ *   --planner.search.time-budget=10        (segundos; la búsqueda es anytime)
+ *   --planner.search.max-open-nodes=200000 (al superarlo la frontera se recorta a la mitad)
+ *   --planner.search.max-closed-nodes=1000000
+ *   --planner.search.rollout-budget=5      (segundos de rollouts Monte Carlo)
+ *   --planner.search.rollout-threads=0     (0 = todos los núcleos)
+ */
+@ConfigurationProperties(prefix = "planner.search")
+public class SearchProperties {
+
+    private double weight = 2.0;
+    private double timeBudget = 10.0;
+    private int maxOpenNodes = 200_000;
+    private int maxClosedNodes = 1_000_000;
+    private double rolloutBudget = 5.0;
+    private int rolloutThreads = 0;
+
+    public AStarPlanner toPlanner(RCPSPModel model) {
+        AStarPlanner planner = new AStarPlanner(model);
+        planner.setWeight(weight);
+        planner.setTimeBudgetSeconds(timeBudget);
+        planner.setMaxOpenNodes(maxOpenNodes);
+        planner.setMaxClosedNodes(maxClosedNodes);
+        return planner;
+    }
+
+    public RolloutPlanner toRolloutPlanner() {
+        RolloutPlanner planner = new RolloutPlanner(rolloutThreads);
+        planner.setTimeBudgetSeconds(rolloutBudget);
+        return planner;
+    }
+
+    // Getters y setters (usados por Spring)
+    public double getWeight() { return weight; }
+    public void setWeight(double weight) { this.weight = weight; }
+    public double getTimeBudget() { return timeBudget; }
+    public void setTimeBudget(double timeBudget) { this.timeBudget = timeBudget; }
+    public int getMaxOpenNodes() { return maxOpenNodes; }
+    public void setMaxOpenNodes(int maxOpenNodes) { this.maxOpenNodes = maxOpenNodes; }
+    public int getMaxClosedNodes() { return maxClosedNodes; }
+    public void setMaxClosedNodes(int maxClosedNodes) { this.maxClosedNodes = maxClosedNodes; }
+    public double getRolloutBudget() { return rolloutBudget; }
+    public void setRolloutBudget(double rolloutBudget) { this.rolloutBudget = rolloutBudget; }
+    public int getRolloutThreads() { return rolloutThreads; }
+    public void setRolloutThreads(int rolloutThreads) { this.rolloutThreads = rolloutThreads; }
+}
@@ -0,0 +1,77 @@
+package com.aoe.planner.config;
+
+import com.aoe.planner.solver.SolverProfile;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración del solver desde application.properties o la línea de comandos:
+ *   --planner.solver.preset=latency
+ *   --planner.solver.workers=0          (0 = todos los núcleos)
+ *   --planner.solver.time-limit=10
+ *   --planner.solver.lexicographic=true (makespan, luego ocio del TC, luego traslados)
+ *   --planner.solver.decompose=true     (resolver por edades, ver PhaseDecompositionSolver)
+ *   --planner.solver.decide-allocation=true (CP-SAT elige el recurso de cada aldeano)
+ *   --planner.solver.lns=true           (LNS guiado por simulación tras la resolución)
+ *   --planner.solver.lns-budget=30      (segundos de LNS)
+ *   --planner.solver.lns-threads=0      (0 = todos los núcleos)
+ * Los valores explícitos sobrescriben los del perfil elegido.
+ */
+@ConfigurationProperties(prefix = "planner.solver")
+public class SolverProperties {
+
+    private String preset = "default";
+    private Double timeLimit;
+    private Double deterministicTime;
+    private Integer workers;
+    private Double relativeGap;
+    private Integer seed;
+    private Boolean log;
+    private boolean decompose = false;
+    private boolean refine = true;
+    private boolean lexicographic = false;
+    private boolean decideAllocation = false;
+    private boolean lns = false;
+    private double lnsBudget = 30.0;
+    private int lnsThreads = 0;
+
+    public SolverProfile toProfile() {
+        SolverProfile profile = SolverProfile.fromName(preset);
+        if (timeLimit != null) profile.setMaxTimeInSeconds(timeLimit);
+        if (deterministicTime != null) profile.setMaxDeterministicTime(deterministicTime);
+        if (workers != null) profile.setWorkers(workers);
+        if (relativeGap != null) profile.setRelativeGap(relativeGap);
+        if (seed != null) profile.setRandomSeed(seed);
+        if (log != null) profile.setLogSearchProgress(log);
+        return profile;
+    }
+
+    // Getters y setters (usados por Spring)
+    public String getPreset() { return preset; }
+    public void setPreset(String preset) { this.preset = preset; }
+    public Double getTimeLimit() { return timeLimit; }
+    public void setTimeLimit(Double timeLimit) { this.timeLimit = timeLimit; }
+    public Double getDeterministicTime() { return deterministicTime; }
+    public void setDeterministicTime(Double deterministicTime) { this.deterministicTime = deterministicTime; }
+    public Integer getWorkers() { return workers; }
+    public void setWorkers(Integer workers) { this.workers = workers; }
+    public Double getRelativeGap() { return relativeGap; }
+    public void setRelativeGap(Double relativeGap) { this.relativeGap = relativeGap; }
+    public Integer getSeed() { return seed; }
+    public void setSeed(Integer seed) { this.seed = seed; }
+    public Boolean getLog() { return log; }
+    public void setLog(Boolean log) { this.log = log; }
+    public boolean isDecompose() { return decompose; }
+    public void setDecompose(boolean decompose) { this.decompose = decompose; }
+    public boolean isRefine() { return refine; }
+    public void setRefine(boolean refine) { this.refine = refine; }
+    public boolean isLexicographic() { return lexicographic; }
+    public void setLexicographic(boolean lexicographic) { this.lexicographic = lexicographic; }
+    public boolean isDecideAllocation() { return decideAllocation; }
+    public void setDecideAllocation(boolean decideAllocation) { this.decideAllocation = decideAllocation; }
+    public boolean isLns() { return lns; }
+    public void setLns(boolean lns) { this.lns = lns; }
+    public double getLnsBudget() { return lnsBudget; }
+    public void setLnsBudget(double lnsBudget) { this.lnsBudget = lnsBudget; }
+    public int getLnsThreads() { return lnsThreads; }
+    public void setLnsThreads(int lnsThreads) { this.lnsThreads = lnsThreads; }
+}
@@ -0,0 +1,49 @@
+package com.aoe.planner.config;
+
+import com.aoe.planner.model.Resource;
+import com.aoe.planner.sweep.*;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.*;
+
+/**
+ * Rejilla de parámetros para el modo barrido (planner.mode=sweep):
+ *   --planner.sweep.villagers=10,13,16
+ *   --planner.sweep.houses=2,3
+ *   --planner.sweep.max-times=900,1200
+ *   --planner.sweep.initial-resources=200/200/100,300/300/200
+ *   --planner.sweep.initial-villagers=3,4
+ *   --planner.sweep.concurrency=4
+ */
+@ConfigurationProperties(prefix = "planner.sweep")
+public class SweepProperties {
+
+    private List<Integer> villagers = new ArrayList<>(List.of(13));
+    private List<Integer> houses = new ArrayList<>(List.of(2));
+    private List<Integer> maxTimes = new ArrayList<>(List.of(1200));
+    private List<String> initialResources = new ArrayList<>(List.of("200/200/100"));
+    private List<Integer> initialVillagers = new ArrayList<>(List.of(3));
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+
+    public List<Scenario> toScenarios() {
+        List<Resource> resources = new ArrayList<>();
+        for (String value : initialResources) {
+            resources.add(Resource.parse(value));
+        }
+        return ScenarioSweep.grid(villagers, houses, maxTimes, resources, initialVillagers);
+    }
+
+    // Getters y setters (usados por Spring)
+    public List<Integer> getVillagers() { return villagers; }
+    public void setVillagers(List<Integer> villagers) { this.villagers = villagers; }
+    public List<Integer> getHouses() { return houses; }
+    public void setHouses(List<Integer> houses) { this.houses = houses; }
+    public List<Integer> getMaxTimes() { return maxTimes; }
+    public void setMaxTimes(List<Integer> maxTimes) { this.maxTimes = maxTimes; }
+    public List<String> getInitialResources() { return initialResources; }
+    public void setInitialResources(List<String> initialResources) { this.initialResources = initialResources; }
+    public List<Integer> getInitialVillagers() { return initialVillagers; }
+    public void setInitialVillagers(List<Integer> initialVillagers) { this.initialVillagers = initialVillagers; }
+    public int getConcurrency() { return concurrency; }
+    public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+}
@@ -0,0 +1,57 @@
+package com.aoe.planner.model;
+
+import java.util.*;
+
+/**
+ * Reparto económico de aldeanos decidido por el optimizador.
+ *
+ * - createdVillagers: recurso de cada aldeano creado, en orden de creación
+ *   (el de su fase: Oscura si nace antes del avance, Feudal si después)
+ * - feudalTargets: aldeanos por recurso al iniciar el avance a Feudal
+ *
+ * GameState lo usa en lugar de sus reglas fijas cuando está presente.
+ */
+public class AllocationPlan {
+
+    private final List<ResourceType> createdVillagers;
+    private final Map<ResourceType, Integer> feudalTargets;
+
+    public AllocationPlan(List<ResourceType> createdVillagers, Map<ResourceType, Integer> feudalTargets) {
+        this.createdVillagers = createdVillagers;
+        this.feudalTargets = feudalTargets;
+    }
+
+    /**
+     * Recurso del aldeano creado número 'index' (desde 0), o null si el plan no lo cubre
+     */
+    public ResourceType resourceForCreatedVillager(int index) {
+        return index < createdVillagers.size() ? createdVillagers.get(index) : null;
+    }
+
+    public boolean hasFeudalTargets() {
+        return !feudalTargets.isEmpty();
+    }
+
+    public int getFeudalTarget(ResourceType resource) {
+        return feudalTargets.getOrDefault(resource, 0);
+    }
+
+    public List<ResourceType> getCreatedVillagers() {
+        return createdVillagers;
+    }
+
+    public Map<ResourceType, Integer> getFeudalTargets() {
+        return feudalTargets;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AllocationPlan{F/W/G creados=%d/%d/%d, Feudal=%d/%d/%d}",
+                           Collections.frequency(createdVillagers, ResourceType.FOOD),
+                           Collections.frequency(createdVillagers, ResourceType.WOOD),
+                           Collections.frequency(createdVillagers, ResourceType.GOLD),
+                           getFeudalTarget(ResourceType.FOOD),
+                           getFeudalTarget(ResourceType.WOOD),
+                           getFeudalTarget(ResourceType.GOLD));
+    }
+}
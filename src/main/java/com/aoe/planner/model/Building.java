@@ -35,6 +35,20 @@ public class Building {
         }
     }
     
+    public Building copy() {
+        Building copy = new Building(type);
+        copy.isConstructing = isConstructing;
+        copy.constructionTimeRemaining = constructionTimeRemaining;
+        return copy;
+    }
+
+    /**
+     * Tipo y construcción restante, lo que distingue al edificio en una búsqueda
+     */
+    public long searchSignature() {
+        return type.ordinal() | (isConstructing ? 1L << 8 : 0) | ((long) constructionTimeRemaining << 16);
+    }
+
     public boolean isComplete() {
         return !isConstructing;
     }
@@ -0,0 +1,142 @@
+package com.aoe.planner.model;
+
+import java.util.*;
+
+/**
+ * Tareas completadas como BitSet sobre los índices de un TaskIndex.
+ *
+ * - Copiar, comparar y combinar cuesta O(palabras de 64 bits), no O(tareas)
+ * - Hash Zobrist incremental: cada tarea tiene una clave de 64 bits y
+ *   marcarla hace XOR de su clave, así el hash nunca se recalcula entero
+ * - Ids que no están en el índice (o sin índice) van a un conjunto aparte,
+ *   para no perder información antes de asociar el grafo
+ */
+public class CompletedTasks {
+
+    private TaskIndex index;
+    private BitSet bits;
+    private Set<String> others;
+    private long hash;
+
+    public CompletedTasks() {
+        this.bits = new BitSet();
+        this.others = new HashSet<>();
+    }
+
+    /**
+     * Asocia el índice de tareas; las ya marcadas se re-internan
+     */
+    public void bind(TaskIndex newIndex) {
+        List<String> marked = new ArrayList<>(asSet());
+        this.index = newIndex;
+        this.bits = new BitSet(newIndex == null ? 0 : newIndex.size());
+        this.others = new HashSet<>();
+        this.hash = 0;
+        for (String taskId : marked) {
+            add(taskId);
+        }
+    }
+
+    /**
+     * Marca la tarea; devuelve false si ya estaba
+     */
+    public boolean add(String taskId) {
+        int i = index == null ? -1 : index.indexOf(taskId);
+        if (i >= 0) {
+            if (bits.get(i)) {
+                return false;
+            }
+            bits.set(i);
+            hash ^= key(i);
+            return true;
+        }
+        if (!others.add(taskId)) {
+            return false;
+        }
+        hash ^= key(taskId);
+        return true;
+    }
+
+    public boolean contains(String taskId) {
+        int i = index == null ? -1 : index.indexOf(taskId);
+        return i >= 0 ? bits.get(i) : others.contains(taskId);
+    }
+
+    public boolean contains(int taskIndex) {
+        return bits.get(taskIndex);
+    }
+
+    public int size() {
+        return bits.cardinality() + others.size();
+    }
+
+    public CompletedTasks copy() {
+        CompletedTasks copy = new CompletedTasks();
+        copy.index = index;
+        copy.bits = (BitSet) bits.clone();
+        copy.others = others.isEmpty() ? new HashSet<>() : new HashSet<>(others);
+        copy.hash = hash;
+        return copy;
+    }
+
+    /**
+     * Vista de solo lectura como conjunto de ids
+     */
+    public Set<String> asSet() {
+        return new AbstractSet<>() {
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String taskId && CompletedTasks.this.contains(taskId);
+            }
+
+            @Override
+            public int size() {
+                return CompletedTasks.this.size();
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                List<String> ids = new ArrayList<>(CompletedTasks.this.size());
+                for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                    ids.add(index.id(i));
+                }
+                ids.addAll(others);
+                return Collections.unmodifiableList(ids).iterator();
+            }
+        };
+    }
+
+    // Getters
+    public TaskIndex getIndex() { return index; }
+    public BitSet getBits() { return bits; } // no modificar
+    public long getHash() { return hash; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompletedTasks other)) return false;
+        return hash == other.hash && index == other.index && bits.equals(other.bits) && others.equals(other.others);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+
+    // Claves Zobrist: mezcla SplitMix64 del índice (o del hash del id), sin tablas
+
+    private static long key(int taskIndex) {
+        return mix(taskIndex + 1L);
+    }
+
+    private static long key(String taskId) {
+        return mix(((long) taskId.hashCode() << 32) ^ 0x5DEECE66DL);
+    }
+
+    static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
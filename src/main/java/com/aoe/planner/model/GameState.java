@@ -4,6 +4,21 @@ import java.util.*;
 
 public class GameState implements Cloneable {
 
+    // Tasas de recolección por aldeano y segundo (compartidas con el modelo CP-SAT)
+    public static final double FOOD_GATHER_RATE = 0.35;
+    public static final double WOOD_GATHER_RATE = 0.39;
+    public static final double GOLD_GATHER_RATE = 0.38;
+
+    // Reparto de aldeanos en Edad Oscura: comida hasta 10, luego madera hasta 5
+    public static final int DARK_AGE_FOOD_TARGET = 10;
+    public static final int DARK_AGE_WOOD_TARGET = 5;
+
+    // Aldeanos que pasan de comida a oro al avanzar a Feudal
+    public static final int FEUDAL_GOLD_TARGET = 3;
+
+    // Segundos de viaje de un aldeano asignado o reasignado a un recurso
+    public static final int TRAVEL_TIME = 5;
+
     private int currentTime;
     private Resource resources;
     private Age currentAge;
@@ -13,7 +28,7 @@ public class GameState implements Cloneable {
     private int populationCapacity;
     private boolean isTownCenterBusy;
     private int townCenterBusyUntil;
-    private Set<String> completedTasks;
+    private CompletedTasks completedTasks; // BitSet sobre el TaskIndex asociado
     private int villagerTransfers;
     private int townCenterIdleTime;
     private List<Technology> technologies;
@@ -21,6 +36,8 @@ public class GameState implements Cloneable {
     private int villagersOnFood;
     private int villagersOnWood;
     private int villagersOnGold;
+    private int assignedFood; // asignaciones de la regla fija (ver fixedAssignment)
+    private int assignedWood;
 
     private int feudalAgeTime = -1;
     private int castleAgeTime = -1;
@@ -29,6 +46,12 @@ public class GameState implements Cloneable {
     private double woodAccumulator = 0;
     private double goldAccumulator = 0;
 
+    // Reparto decidido por el optimizador (null = reglas fijas)
+    private AllocationPlan allocationPlan;
+    private int villagersCreated = 0;
+
+    private boolean verbose = true;
+
     public GameState() {
         this.currentTime = 0;
         this.resources = new Resource(200, 200, 100);
@@ -39,7 +62,7 @@ public class GameState implements Cloneable {
         this.populationCapacity = 5;
         this.isTownCenterBusy = false;
         this.townCenterBusyUntil = 0;
-        this.completedTasks = new HashSet<>();
+        this.completedTasks = new CompletedTasks();
         this.villagerTransfers = 0;
         this.townCenterIdleTime = 0;
         this.technologies = new ArrayList<>();
@@ -47,6 +70,8 @@ public class GameState implements Cloneable {
         this.villagersOnFood = 3;
         this.villagersOnWood = 0;
         this.villagersOnGold = 0;
+        this.assignedFood = 3;
+        this.assignedWood = 0;
 
         technologies.add(new Technology(TechnologyType.ARADO, 40, new Resource(125, 75, 0)));
         technologies.add(new Technology(TechnologyType.SIERRA_DOBLE, 40, new Resource(50, 100, 0)));
@@ -74,17 +99,23 @@ public class GameState implements Cloneable {
             cloned.resources = this.resources.copy();
             cloned.villagers = new ArrayList<>(this.villagers.size());
             cloned.buildings = new ArrayList<>(this.buildings.size());
-            cloned.completedTasks = new HashSet<>(this.completedTasks);
+            cloned.completedTasks = this.completedTasks.copy();
+            cloned.researchedTechnologies = new HashSet<>(this.researchedTechnologies);
+            cloned.technologies = new ArrayList<>(this.technologies.size());
             cloned.villagersOnFood = this.villagersOnFood;
             cloned.villagersOnWood = this.villagersOnWood;
             cloned.villagersOnGold = this.villagersOnGold;
 
             for (Villager v : this.villagers) {
-                cloned.villagers.add(v);
+                cloned.villagers.add(v.copy()); // tick() los modifica: copia profunda
             }
 
             for (Building b : this.buildings) {
-                cloned.buildings.add(b);
+                cloned.buildings.add(b.copy());
+            }
+
+            for (Technology t : this.technologies) {
+                cloned.technologies.add(t.copy());
             }
 
             return cloned;
@@ -142,11 +173,11 @@ public class GameState implements Cloneable {
                     gathering++;
                 }
             }
-            System.out.println("DEBUG: Tick " + currentTime + " | Aldeanos recolectando: " + gathering + "/" + villagers.size());
+            log("DEBUG: Tick " + currentTime + " | Aldeanos recolectando: " + gathering + "/" + villagers.size());
         }*/
-        double foodRate = 0.35;
-        double woodRate = 0.39;
-        double goldRate = 0.38;
+        double foodRate = FOOD_GATHER_RATE;
+        double woodRate = WOOD_GATHER_RATE;
+        double goldRate = GOLD_GATHER_RATE;
 
         if (researchedTechnologies.contains(TechnologyType.ARADO) && currentAge != Age.DARK_AGE) {
             foodRate *= 1.15;
@@ -221,166 +252,154 @@ public class GameState implements Cloneable {
         villagers.add(newVillager);
         population++;
 
-        System.out.println("DEBUG: Creando aldeano #" + villagers.size() +
+        log("DEBUG: Creando aldeano #" + villagers.size() +
                          " en edad " + currentAge +
                          " | F/W/G actual: " + villagersOnFood + "/" + villagersOnWood + "/" + villagersOnGold);
 
-        if (currentAge == Age.DARK_AGE) {
-            if (villagersOnFood < 10) {
-                villagersOnFood++;
-                newVillager.assignTo(ResourceType.FOOD, 5);
-                villagerTransfers++;
-                System.out.println("  → Asignado a COMIDA (total: " + villagersOnFood + ")");
-            } else if (villagersOnWood < 5) {
-                villagersOnWood++;
-                newVillager.assignTo(ResourceType.WOOD, 5);
-                villagerTransfers++;
-                System.out.println("  → Asignado a MADERA (total: " + villagersOnWood + ")");
-            } else {
-                villagersOnFood++;
-                newVillager.assignTo(ResourceType.FOOD, 5);
-                villagerTransfers++;
-                System.out.println("  → Asignado a COMIDA (excedente, total: " + villagersOnFood + ")");
+        ResourceType planned = allocationPlan == null ? null
+                             : allocationPlan.resourceForCreatedVillager(villagersCreated);
+        villagersCreated++;
+
+        if (planned != null) {
+            switch (planned) {
+                case FOOD -> villagersOnFood++;
+                case WOOD -> villagersOnWood++;
+                case GOLD -> villagersOnGold++;
             }
-        }  else if (currentAge == Age.FEUDAL_AGE) {
-            if (villagersOnFood < 12) {  
-                villagersOnFood++;
-                newVillager.assignTo(ResourceType.FOOD, 5);
-                villagerTransfers++;
-    
-            } else if (villagersOnGold < 5) {  
-                villagersOnGold++;
-                newVillager.assignTo(ResourceType.GOLD, 5);
-                villagerTransfers++;
-            } else if (villagersOnWood < 3) {  
-                villagersOnWood++;
-                newVillager.assignTo(ResourceType.WOOD, 5);
-                villagerTransfers++;
+            newVillager.assignTo(planned, 5);
+            villagerTransfers++;
+            log("  → Asignado según el plan a " + planned);
+        } else {
+            // Regla fija, la misma en todas las edades (ResourceFlowModel la reproduce)
+            ResourceType resource = fixedAssignment(assignedFood, assignedWood);
+            if (resource == ResourceType.FOOD) {
+                assignedFood++;
             } else {
-                // Balancear entre comida y oro
-                if (villagersOnFood >= villagersOnGold) {
-                    villagersOnGold++;
-                    newVillager.assignTo(ResourceType.GOLD, 5);
-                    villagerTransfers++;
-                } else {
-                    villagersOnFood++;
-                    newVillager.assignTo(ResourceType.FOOD, 5);
-                    villagerTransfers++;
-                }
+                assignedWood++;
+            }
+            addGatherers(resource, 1);
+            newVillager.assignTo(resource, TRAVEL_TIME);
+            villagerTransfers++;
+            log("  → Asignado a " + resource + " (F/W/G: " + villagersOnFood + "/" + villagersOnWood
+                + "/" + villagersOnGold + ")");
         }
         isTownCenterBusy = true;
         townCenterBusyUntil = currentTime + 25;
     }
-}
-    public void redistributeVillagersForAge() {
-    if (currentAge == Age.FEUDAL_AGE) {
-        System.out.println("🔄 Reasignando aldeanos para Feudal Age...");
-        System.out.println("   Antes: F=" + villagersOnFood + " W=" + villagersOnWood + " G=" + villagersOnGold);
-        
-        // DEBUG: Verificar distribución real de aldeanos
-        int realFood = 0, realWood = 0, realGold = 0;
-        for (Villager v : villagers) {
-            if (v.getAssignedResource() != null) {
-                switch (v.getAssignedResource()) {
-                    case FOOD -> realFood++;
-                    case WOOD -> realWood++;
-                    case GOLD -> realGold++;
-                }
-            }
+
+    /**
+     * Recurso de un aldeano nuevo con el reparto fijo: comida hasta
+     * DARK_AGE_FOOD_TARGET, madera hasta DARK_AGE_WOOD_TARGET y después comida.
+     * Los contadores son asignaciones hechas por esta regla (incluidos los
+     * recolectores iniciales), no recolectores actuales: el traslado a oro
+     * de Feudal no los cambia. ResourceFlowModel usa la misma función.
+     */
+    public static ResourceType fixedAssignment(int assignedFood, int assignedWood) {
+        if (assignedFood < DARK_AGE_FOOD_TARGET) {
+            return ResourceType.FOOD;
         }
-        System.out.println("   Real: F=" + realFood + " W=" + realWood + " G=" + realGold);
-        
-        int foodTarget = 13;
-        int goldTarget = 3;
-        int woodTarget = 2;
-        
-        // 1. Asegurar el oro (prioridad alta)
-        while (villagersOnGold < goldTarget) {
-            boolean found = false;
-            
-            // Intentar desde comida si hay exceso
-            if (villagersOnFood > foodTarget) {
-                for (Villager v : villagers) {
-                    if (v.isReady() && v.getAssignedResource() == ResourceType.FOOD) {
-                        v.assignTo(ResourceType.GOLD, 5);
-                        villagersOnFood--;
-                        villagersOnGold++;
-                        villagerTransfers++;
-                        System.out.println("   → Aldeano #" + v.getId() + " reasignado: COMIDA → ORO");
-                        found = true;
-                        break;
-                    }
-                }
-            }
-            
-            // Si no, tomar de madera si hay exceso
-            if (!found && villagersOnWood > woodTarget) {
-                for (Villager v : villagers) {
-                    if (v.isReady() && v.getAssignedResource() == ResourceType.WOOD) {
-                        v.assignTo(ResourceType.GOLD, 5);
-                        villagersOnWood--;
-                        villagersOnGold++;
-                        villagerTransfers++;
-                        System.out.println("   → Aldeano #" + v.getId() + " reasignado: MADERA → ORO");
-                        found = true;
-                        break;
-                    }
-                }
-            }
-            
-            // Forzar desde comida aunque no tengamos el target (mantener mínimo 13)
-            if (!found && villagersOnFood > 9) {
-                for (Villager v : villagers) {
-                    if (v.isReady() && v.getAssignedResource() == ResourceType.FOOD) {
-                        v.assignTo(ResourceType.GOLD, 5);
-                        villagersOnFood--;
-                        villagersOnGold++;
-                        villagerTransfers++;
-                        System.out.println("   → Aldeano #" + v.getId() + " reasignado (forzado): COMIDA → ORO");
-                        found = true;
-                        break;
-                    }
-                }
-            }
-            
-            if (!found) {
-                System.out.println("    No hay aldeanos disponibles para reasignar a oro");
-                break;
-            }
+        if (assignedWood < DARK_AGE_WOOD_TARGET) {
+            return ResourceType.WOOD;
         }
-        
-        // 2. Ajustar madera si hay exceso
-        while (villagersOnWood > woodTarget) {
-            boolean found = false;
-            for (Villager v : villagers) {
-                if (v.isReady() && v.getAssignedResource() == ResourceType.WOOD) {
-                    v.assignTo(ResourceType.FOOD, 5);
-                    villagersOnWood--;
-                    villagersOnFood++;
+        return ResourceType.FOOD;
+    }
+    /**
+     * Con verbose=false no se imprime la traza (simulaciones masivas de evaluación)
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * Sigue el reparto decidido por el optimizador en lugar de las reglas fijas
+     */
+    public void setAllocationPlan(AllocationPlan allocationPlan) {
+        this.allocationPlan = allocationPlan;
+    }
+
+    public AllocationPlan getAllocationPlan() {
+        return allocationPlan;
+    }
+
+    /**
+     * Mueve aldeanos de los recursos con excedente a los que tienen déficit
+     * respecto a los objetivos de Feudal del plan (primero los que ya trabajan)
+     */
+    private void rebalanceToPlan() {
+        log("🔄 Reasignando aldeanos según el plan: " + allocationPlan);
+        ResourceType[] order = {ResourceType.FOOD, ResourceType.WOOD, ResourceType.GOLD};
+        for (ResourceType target : order) {
+            for (ResourceType source : order) {
+                while (source != target
+                       && gatherersOn(target) < allocationPlan.getFeudalTarget(target)
+                       && gatherersOn(source) > allocationPlan.getFeudalTarget(source)) {
+                    Villager moved = null;
+                    for (Villager v : villagers) {
+                        if (v.getAssignedResource() == source && (moved == null || (v.isReady() && !moved.isReady()))) {
+                            moved = v;
+                        }
+                    }
+                    if (moved == null) break;
+                    moved.assignTo(target, 5);
+                    addGatherers(source, -1);
+                    addGatherers(target, 1);
                     villagerTransfers++;
-                    System.out.println("   → Aldeano #" + v.getId() + " reasignado: MADERA → COMIDA");
-                    found = true;
-                    break;
+                    log("   → Aldeano #" + moved.getId() + " reasignado: " + source + " → " + target);
                 }
             }
-            if (!found) break;
         }
-        
-        System.out.println("   Después: F=" + villagersOnFood + " W=" + villagersOnWood + " G=" + villagersOnGold);
-        System.out.println("   (Objetivo: F=" + foodTarget + " W=" + woodTarget + " G=" + goldTarget + ")");
-        
-        // DEBUG: Verificar distribución real después
-        realFood = 0; realWood = 0; realGold = 0;
+        log("   Después: F=" + villagersOnFood + " W=" + villagersOnWood + " G=" + villagersOnGold);
+    }
+
+    private int gatherersOn(ResourceType resource) {
+        return switch (resource) {
+            case FOOD -> villagersOnFood;
+            case WOOD -> villagersOnWood;
+            case GOLD -> villagersOnGold;
+        };
+    }
+
+    private void addGatherers(ResourceType resource, int delta) {
+        switch (resource) {
+            case FOOD -> villagersOnFood += delta;
+            case WOOD -> villagersOnWood += delta;
+            case GOLD -> villagersOnGold += delta;
+        }
+    }
+
+    public void redistributeVillagersForAge() {
+    if (currentAge == Age.FEUDAL_AGE && allocationPlan != null && allocationPlan.hasFeudalTargets()) {
+        rebalanceToPlan();
+    } else if (currentAge == Age.FEUDAL_AGE) {
+        // Regla fija: FEUDAL_GOLD_TARGET recolectores de comida pasan a oro,
+        // con TRAVEL_TIME de viaje (ResourceFlowModel modela lo mismo)
+        log("🔄 Reasignando aldeanos para Feudal Age...");
+        log("   Antes: F=" + villagersOnFood + " W=" + villagersOnWood + " G=" + villagersOnGold);
+        int moved = 0;
         for (Villager v : villagers) {
-            if (v.getAssignedResource() != null) {
-                switch (v.getAssignedResource()) {
-                    case FOOD -> realFood++;
-                    case WOOD -> realWood++;
-                    case GOLD -> realGold++;
-                }
+            if (moved == FEUDAL_GOLD_TARGET) {
+                break;
+            }
+            if (v.isReady() && v.getAssignedResource() == ResourceType.FOOD) {
+                v.assignTo(ResourceType.GOLD, TRAVEL_TIME);
+                villagersOnFood--;
+                villagersOnGold++;
+                villagerTransfers++;
+                moved++;
+                log("   → Aldeano #" + v.getId() + " reasignado: COMIDA → ORO");
             }
         }
-        System.out.println("   Real después: F=" + realFood + " W=" + realWood + " G=" + realGold);
+        log("   Después: F=" + villagersOnFood + " W=" + villagersOnWood + " G=" + villagersOnGold);
     }
 }
 
@@ -494,7 +513,10 @@ public class GameState implements Cloneable {
     public List<Building> getBuildings() { return buildings; }
     public int getPopulation() { return population; }
     public int getPopulationCapacity() { return populationCapacity; }
-    public Set<String> getCompletedTasks() { return completedTasks; }
+    public boolean isTownCenterBusy() { return isTownCenterBusy; }
+    public int getTownCenterBusyUntil() { return townCenterBusyUntil; }
+    public Set<String> getCompletedTasks() { return completedTasks.asSet(); } // solo lectura
+    public CompletedTasks getCompleted() { return completedTasks; }
     public int getVillagerTransfers() { return villagerTransfers; }
     public int getTownCenterIdleTime() { return townCenterIdleTime; }
     public List<Technology> getTechnologies() { return technologies; }
@@ -509,6 +531,95 @@ public class GameState implements Cloneable {
         return (ticksAtPopCap * 100.0) / currentTime;
     }
 
+    /**
+     * Asocia el índice de tareas del grafo (p. ej. PrecedenceGraph.compact());
+     * las completadas pasan a guardarse como bits sobre sus índices
+     */
+    public void setTaskIndex(TaskIndex index) {
+        completedTasks.bind(index);
+    }
+
+    public boolean markTaskCompleted(String taskId) {
+        return completedTasks.add(taskId);
+    }
+
+    public boolean isTaskCompleted(String taskId) {
+        return completedTasks.contains(taskId);
+    }
+
+    /**
+     * Hash del estado para detectar duplicados en búsquedas: el Zobrist
+     * incremental de las tareas completadas mezclado con todo lo que decide
+     * qué acciones hay y cuándo (edad, población, recursos, fracciones
+     * acumuladas, reparto, TC ocupado, aldeanos y edificios en curso).
+     * Los temporizadores van relativos a currentTime: el mismo estado
+     * alcanzado más tarde tiene el mismo hash.
+     */
+    public long getStateHash() {
+        long h = completedTasks.getHash();
+        h = CompletedTasks.mix(h ^ currentAge.ordinal() ^ ((long) townCenterRemaining() << 8)
+                               ^ ((long) villagersCreated << 32));
+        h = CompletedTasks.mix(h ^ population ^ ((long) populationCapacity << 16));
+        h = CompletedTasks.mix(h ^ resources.getFood() ^ ((long) resources.getWood() << 21)
+                               ^ ((long) resources.getGold() << 42));
+        h = CompletedTasks.mix(h ^ villagersOnFood ^ ((long) villagersOnWood << 21)
+                               ^ ((long) villagersOnGold << 42));
+        h = CompletedTasks.mix(h ^ Double.doubleToLongBits(foodAccumulator));
+        h = CompletedTasks.mix(h ^ Double.doubleToLongBits(woodAccumulator));
+        h = CompletedTasks.mix(h ^ Double.doubleToLongBits(goldAccumulator));
+        h = CompletedTasks.mix(h ^ researchedTechnologies.hashCode());
+        for (Villager v : villagers) {
+            h = CompletedTasks.mix(h ^ v.searchSignature());
+        }
+        for (Building b : buildings) {
+            h = CompletedTasks.mix(h ^ b.searchSignature());
+        }
+        return h;
+    }
+
+    /**
+     * Segundos que le quedan ocupado al TC (-1 si está libre)
+     */
+    private int townCenterRemaining() {
+        return isTownCenterBusy ? townCenterBusyUntil - currentTime : -1;
+    }
+
+    /**
+     * Igualdad de estado de búsqueda (los mismos campos que getStateHash,
+     * sin comparar el hash: dos estados distintos pueden colisionar)
+     */
+    public boolean isSameSearchState(GameState other) {
+        if (villagers.size() != other.villagers.size() || buildings.size() != other.buildings.size()) {
+            return false;
+        }
+        for (int i = 0; i < villagers.size(); i++) {
+            if (villagers.get(i).searchSignature() != other.villagers.get(i).searchSignature()) {
+                return false;
+            }
+        }
+        for (int i = 0; i < buildings.size(); i++) {
+            if (buildings.get(i).searchSignature() != other.buildings.get(i).searchSignature()) {
+                return false;
+            }
+        }
+        return currentAge == other.currentAge
+            && townCenterRemaining() == other.townCenterRemaining()
+            && villagersCreated == other.villagersCreated
+            && Double.compare(foodAccumulator, other.foodAccumulator) == 0
+            && Double.compare(woodAccumulator, other.woodAccumulator) == 0
+            && Double.compare(goldAccumulator, other.goldAccumulator) == 0
+            && researchedTechnologies.equals(other.researchedTechnologies)
+            && population == other.population
+            && populationCapacity == other.populationCapacity
+            && resources.getFood() == other.resources.getFood()
+            && resources.getWood() == other.resources.getWood()
+            && resources.getGold() == other.resources.getGold()
+            && villagersOnFood == other.villagersOnFood
+            && villagersOnWood == other.villagersOnWood
+            && villagersOnGold == other.villagersOnGold
+            && completedTasks.equals(other.completedTasks);
+    }
+
     @Override
     public String toString() {
         return String.format("GameState{time=%d, age=%s, resources=%s, pop=%d/%d, villagers=%d, buildings=%d}",
@@ -0,0 +1,24 @@
+package com.aoe.planner.model;
+
+/**
+ * Recurso renovable con capacidad constante (p. ej. R1..R4 de PSPLIB):
+ * en cada instante, la suma de demandas de las tareas en curso no puede superarla.
+ * A diferencia de comida/madera/oro, no se consume: se libera al terminar la tarea.
+ */
+public class RenewableResource {
+    private final String id;
+    private final int capacity;
+
+    public RenewableResource(String id, int capacity) {
+        this.id = id;
+        this.capacity = capacity;
+    }
+
+    public String getId() { return id; }
+    public int getCapacity() { return capacity; }
+
+    @Override
+    public String toString() {
+        return String.format("RenewableResource{id=%s, capacity=%d}", id, capacity);
+    }
+}
@@ -15,6 +15,23 @@ public class Resource {
         this.gold = gold;
     }
     
+    /**
+     * Lee recursos en formato "comida/madera/oro", p. ej. 200/200/100
+     */
+    public static Resource parse(String value) {
+        String[] parts = value.trim().split("/");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Recursos inválidos (se espera F/W/G): " + value);
+        }
+        try {
+            return new Resource(Integer.parseInt(parts[0].trim()),
+                                Integer.parseInt(parts[1].trim()),
+                                Integer.parseInt(parts[2].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Recursos inválidos (se espera F/W/G): " + value);
+        }
+    }
+    
     public Resource copy() {
         return new Resource(food, wood, gold);
     }
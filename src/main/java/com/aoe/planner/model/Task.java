@@ -15,6 +15,7 @@ public class Task {
     private Resource resourcesGenerated; // Para tareas de recolección
     private double generationRatePerSecond; // Tasa de generación
     private int villagersRequired; // Aldeanos necesarios para esta tarea
+    private Map<String, Integer> renewableDemands; // Demanda por recurso renovable
     
     public Task(String id, TaskType type, int duration, Resource cost) {
         this.id = id;
@@ -27,6 +28,7 @@ public class Task {
         this.resourcesGenerated = new Resource(0, 0, 0);
         this.generationRatePerSecond = 0.0;
         this.villagersRequired = 0;
+        this.renewableDemands = new TreeMap<>();
     }
     
     public Task(String id, TaskType type, int duration, Resource cost, boolean requiresTC) {
@@ -51,6 +53,14 @@ public class Task {
         this.villagersRequired = count;
     }
     
+    public void setRenewableDemand(String resourceId, int amount) {
+        if (amount > 0) {
+            renewableDemands.put(resourceId, amount);
+        } else {
+            renewableDemands.remove(resourceId);
+        }
+    }
+    
     // Getters
     public String getId() { return id; }
     public TaskType getType() { return type; }
@@ -63,6 +73,8 @@ public class Task {
     public Resource getResourcesGenerated() { return resourcesGenerated; }
     public double getGenerationRatePerSecond() { return generationRatePerSecond; }
     public int getVillagersRequired() { return villagersRequired; }
+    public Map<String, Integer> getRenewableDemands() { return renewableDemands; }
+    public int getRenewableDemand(String resourceId) { return renewableDemands.getOrDefault(resourceId, 0); }
     
     @Override
     public String toString() {
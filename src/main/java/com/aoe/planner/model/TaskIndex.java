@@ -0,0 +1,17 @@
+package com.aoe.planner.model;
+
+/**
+ * Internado de ids de tarea a enteros densos 0..size-1
+ * (lo implementa CompactGraph; GameState lo usa sin depender del grafo)
+ */
+public interface TaskIndex {
+
+    int size();
+
+    /**
+     * Índice de la tarea, o -1 si no está
+     */
+    int indexOf(String taskId);
+
+    String id(int index);
+}
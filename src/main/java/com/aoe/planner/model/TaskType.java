@@ -15,5 +15,6 @@ public enum TaskType {
     ADVANCE_FEUDAL,
     ADVANCE_CASTLE,
     ASSIGN_VILLAGER,
-    RESEARCH_TECH
+    RESEARCH_TECH,
+    JOB             // Actividad genérica (instancias PSPLIB)
 }
\ No newline at end of file
@@ -13,6 +13,12 @@ public class Technology {
         this.researched = false;
     }
 
+    public Technology copy() {
+        Technology copy = new Technology(type, duration, cost);
+        copy.researched = researched;
+        return copy;
+    }
+
     public TechnologyType getType() { return type; }
     public int getDuration() { return duration; }
     public Resource getCost() { return cost; }
@@ -34,6 +34,26 @@ public class Villager {
         }
     }
     
+    public Villager copy() {
+        Villager copy = new Villager(id);
+        copy.creationTime = creationTime;
+        copy.isReady = isReady;
+        copy.assignedResource = assignedResource;
+        copy.travelTimeRemaining = travelTimeRemaining;
+        return copy;
+    }
+
+    /**
+     * Lo que distingue a este aldeano en una búsqueda (sin el id):
+     * entrenamiento pendiente, recurso asignado y viaje restante
+     */
+    public long searchSignature() {
+        long signature = isReady ? 0 : 1 + creationTime;
+        signature |= (long) (assignedResource == null ? 0 : assignedResource.ordinal() + 1) << 32;
+        signature |= (long) travelTimeRemaining << 36;
+        return signature;
+    }
+
     public boolean isGathering() {
         return isReady && assignedResource != null && travelTimeRemaining == 0;
     }
@@ -0,0 +1,89 @@
+package com.aoe.planner.psplib;
+
+import com.aoe.planner.solver.*;
+import com.google.ortools.sat.CpSolverStatus;
+
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Resuelve instancias PSPLIB con el pipeline de CPSATSolver y compara el
+ * makespan con el mejor publicado, para detectar regresiones de calidad
+ * y medir el rendimiento del solver sobre benchmarks conocidos.
+ */
+public class PsplibBenchmark {
+
+    private final SolverProfile profile;
+    private final Map<String, Integer> bestKnown;
+
+    /**
+     * @param bestKnown mejores makespans por clave "parámetro_instancia" (vacío si no hay referencia)
+     */
+    public PsplibBenchmark(SolverProfile profile, Map<String, Integer> bestKnown) {
+        this.profile = profile.copy();
+        this.profile.setLogSearchProgress(false);
+        this.bestKnown = bestKnown;
+    }
+
+    public List<SolverResult> run(List<Path> files) {
+        System.out.println("=== Benchmark PSPLIB: " + files.size() + " instancias ===");
+        System.out.println("Perfil: " + profile);
+        System.out.println(String.format("%-12s %-6s | %-10s %-9s %-9s %-9s %-8s %-8s",
+                                         "Instancia", "Tareas", "Estado", "Makespan", "Cota",
+                                         "Mejor", "Desvío", "Tiempo"));
+
+        List<SolverResult> results = new ArrayList<>();
+        int optimal = 0;
+        int matched = 0;
+        int compared = 0;
+        double deviationSum = 0;
+        double totalTime = 0;
+
+        for (Path file : files) {
+            PsplibInstance instance;
+            try {
+                instance = PsplibReader.read(file);
+            } catch (Exception e) {
+                System.out.println(String.format("%-12s ✗ %s", file.getFileName(), e.getMessage()));
+                continue;
+            }
+
+            long start = System.nanoTime();
+            CPSATSolver solver = new CPSATSolver(instance.toModel());
+            solver.setProfile(profile);
+            solver.setVerbose(false);
+            solver.setWarmStart(true);
+            SolverResult result = solver.solveSchedule();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            results.add(result);
+            totalTime += elapsed;
+
+            Integer best = bestKnown.get(instance.getReferenceKey());
+            String bestColumn = best == null ? "-" : best.toString();
+            String deviationColumn = "-";
+            if (best != null && result.hasSolution()) {
+                double deviation = 100.0 * (result.getMakespan() - best) / best;
+                deviationColumn = String.format("%.2f%%", deviation);
+                deviationSum += deviation;
+                compared++;
+                if (result.getMakespan() <= best) {
+                    matched++;
+                }
+            }
+            if (result.getStatus() == CpSolverStatus.OPTIMAL) {
+                optimal++;
+            }
+
+            System.out.println(String.format("%-12s %-6d | %-10s %-9d %-9.0f %-9s %-8s %.2fs",
+                                             instance.getName(), instance.getGraph().size(),
+                                             result.getStatus(), result.getMakespan(), result.getBestBound(),
+                                             bestColumn, deviationColumn, elapsed));
+        }
+
+        System.out.println(String.format("Óptimas: %d/%d | Igualan el mejor publicado: %d/%d | "
+                                         + "Desvío medio: %.2f%% | Tiempo total: %.2fs",
+                                         optimal, results.size(), matched, compared,
+                                         compared == 0 ? 0.0 : deviationSum / compared, totalTime));
+        return results;
+    }
+}
@@ -0,0 +1,45 @@
+package com.aoe.planner.psplib;
+
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.solver.RCPSPModel;
+
+/**
+ * Instancia RCPSP de un archivo PSPLIB: grafo con recursos renovables y horizonte.
+ */
+public class PsplibInstance {
+    private final String name;
+    private final PrecedenceGraph graph;
+    private final int horizon;
+
+    public PsplibInstance(String name, PrecedenceGraph graph, int horizon) {
+        this.name = name;
+        this.graph = graph;
+        this.horizon = horizon;
+    }
+
+    /**
+     * Modelo para CPSATSolver con el horizonte del archivo como maxTime
+     */
+    public RCPSPModel toModel() {
+        return RCPSPModel.fromGraph(graph, horizon);
+    }
+
+    /**
+     * Clave "parámetro_instancia" de los archivos de referencia (j301_1 → 1_1)
+     */
+    public String getReferenceKey() {
+        String base = name.replaceFirst("^j(30|60|90|120)", "");
+        return base.equals(name) ? name : base;
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public PrecedenceGraph getGraph() { return graph; }
+    public int getHorizon() { return horizon; }
+
+    @Override
+    public String toString() {
+        return String.format("PsplibInstance{name=%s, jobs=%d, resources=%d, horizon=%d}",
+                           name, graph.size(), graph.getRenewableResources().size(), horizon);
+    }
+}
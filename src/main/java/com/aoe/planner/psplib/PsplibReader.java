@@ -0,0 +1,162 @@
+package com.aoe.planner.psplib;
+
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.model.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Lector de instancias PSPLIB de modo único (.sm: J30, J60, J90, J120).
+ *
+ * Secciones usadas:
+ * - horizon: cota superior del makespan (maxTime del modelo)
+ * - PRECEDENCE RELATIONS: sucesores de cada actividad
+ * - REQUESTS/DURATIONS: duración y demanda de cada recurso renovable
+ * - RESOURCEAVAILABILITIES: capacidad de cada recurso renovable
+ * Las actividades son tareas JOB "job_<n>" (incluidas la fuente y el sumidero
+ * ficticios de duración 0); cada recurso R k pasa a un RenewableResource "R<k>".
+ */
+public class PsplibReader {
+
+    private PsplibReader() {
+    }
+
+    public static PsplibInstance read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.ISO_8859_1);
+        String name = file.getFileName().toString().replaceFirst("\\.sm$", "");
+
+        int horizon = -1;
+        int renewableCount = -1;
+        Map<Integer, List<Integer>> successors = new TreeMap<>();
+        Map<Integer, int[]> requests = new TreeMap<>();
+        int[] capacities = null;
+
+        String section = "";
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("***") || line.startsWith("---")) {
+                if (line.startsWith("***")) {
+                    section = "";
+                }
+                continue;
+            }
+
+            if (line.startsWith("horizon")) {
+                horizon = Integer.parseInt(valueAfterColon(line));
+            } else if (line.startsWith("- renewable")) {
+                renewableCount = Integer.parseInt(valueAfterColon(line).split("\\s+")[0]);
+            } else if (line.startsWith("PRECEDENCE RELATIONS")) {
+                section = "precedence";
+                i++; // cabecera "jobnr. #modes #successors successors"
+            } else if (line.startsWith("REQUESTS/DURATIONS")) {
+                section = "requests";
+                i++; // cabecera "jobnr. mode duration R 1 ..."
+            } else if (line.startsWith("RESOURCEAVAILABILITIES")) {
+                section = "availability";
+                i++; // cabecera "R 1 R 2 ..."
+            } else if (section.equals("precedence")) {
+                int[] values = parseInts(line);
+                if (values[1] != 1) {
+                    throw new IllegalArgumentException("Solo se admiten instancias de modo único (.sm): " + file);
+                }
+                List<Integer> next = new ArrayList<>();
+                for (int k = 3; k < 3 + values[2]; k++) {
+                    next.add(values[k]);
+                }
+                successors.put(values[0], next);
+            } else if (section.equals("requests")) {
+                int[] values = parseInts(line);
+                requests.put(values[0], Arrays.copyOfRange(values, 2, values.length));
+            } else if (section.equals("availability")) {
+                capacities = parseInts(line);
+                section = "";
+            }
+        }
+
+        if (horizon < 0 || renewableCount < 0 || capacities == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Archivo PSPLIB incompleto: " + file);
+        }
+
+        PrecedenceGraph graph = new PrecedenceGraph();
+        for (int k = 0; k < renewableCount; k++) {
+            graph.addRenewableResource(new RenewableResource("R" + (k + 1), capacities[k]));
+        }
+
+        Map<Integer, Task> tasks = new TreeMap<>();
+        for (Map.Entry<Integer, int[]> entry : requests.entrySet()) {
+            int[] request = entry.getValue(); // duración, R1..Rk
+            Task task = new Task(jobId(entry.getKey()), TaskType.JOB, request[0], new Resource(0, 0, 0));
+            for (int k = 0; k < renewableCount; k++) {
+                task.setRenewableDemand("R" + (k + 1), request[k + 1]);
+            }
+            tasks.put(entry.getKey(), task);
+        }
+        for (Map.Entry<Integer, List<Integer>> entry : successors.entrySet()) {
+            for (int successor : entry.getValue()) {
+                tasks.get(successor).addPredecessor(jobId(entry.getKey()));
+            }
+        }
+        for (Task task : tasks.values()) {
+            graph.addTask(task);
+        }
+
+        return new PsplibInstance(name, graph, horizon);
+    }
+
+    /**
+     * Archivos .sm de una lista de rutas (los directorios se expanden, en orden)
+     */
+    public static List<Path> expand(List<String> paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String value : paths) {
+            Path path = Path.of(value);
+            if (Files.isDirectory(path)) {
+                try (var listing = Files.list(path)) {
+                    listing.filter(p -> p.getFileName().toString().endsWith(".sm"))
+                           .sorted()
+                           .forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Mejores makespans publicados (j30opt.sm, j60hrs.sm, ...): filas
+     * "parámetro instancia makespan ..." → clave "parámetro_instancia"
+     */
+    public static Map<String, Integer> readReference(Path file) throws IOException {
+        Map<String, Integer> best = new HashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.ISO_8859_1)) {
+            String[] tokens = line.trim().split("\\s+");
+            if (tokens.length < 3 || !tokens[0].matches("\\d+") || !tokens[1].matches("\\d+")
+                    || !tokens[2].matches("\\d+")) {
+                continue;
+            }
+            best.put(tokens[0] + "_" + tokens[1], Integer.parseInt(tokens[2]));
+        }
+        return best;
+    }
+
+    private static String jobId(int number) {
+        return "job_" + number;
+    }
+
+    private static String valueAfterColon(String line) {
+        return line.substring(line.indexOf(':') + 1).trim();
+    }
+
+    private static int[] parseInts(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        int[] values = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            values[i] = Integer.parseInt(tokens[i]);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,277 @@
+package com.aoe.planner.search;
+
+import com.aoe.planner.algorithm.CPMHeuristic;
+import com.aoe.planner.algorithm.CompactGraph;
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.model.*;
+import com.aoe.planner.simulation.DiscreteEventSimulator;
+import com.aoe.planner.solver.CPSATSolver;
+import com.aoe.planner.solver.RCPSPModel;
+
+import java.util.*;
+
+/**
+ * Planificador best-first (A* ponderado, anytime) sobre GameState.
+ *
+ * - Estado: GameState tras ejecutar un prefijo del plan en el simulador,
+ *   así respeta todo el modelo económico (reparto, viajes, población)
+ *   que CP-SAT aproxima
+ * - Sucesores: una acción por tipo entre las tareas del grafo listas
+ *   (predecesores completados); se aplica con DiscreteEventSimulator sobre
+ *   una copia y se descarta si el simulador no la pudo ejecutar
+ * - g = tiempo de juego, h = CPMHeuristic, f = g + peso * h
+ * - Duplicados: conjunto cerrado por estado (hash de GameState.getStateHash,
+ *   igualdad con isSameSearchState) con el mejor g visto; como los
+ *   temporizadores son relativos, un estado igual alcanzado más tarde nunca es mejor
+ * - Anytime: tras la primera solución sigue buscando y poda todo nodo con
+ *   g >= mejor solución, hasta vaciar la frontera o agotar el presupuesto
+ * - Memoria acotada: la frontera se recorta a la mitad de mejor f al superar
+ *   maxOpenNodes y el conjunto cerrado desaloja en orden LRU al superar
+ *   maxClosedNodes (con desalojos el resultado ya no es exhaustivo)
+ * La heurística suma tiempo de recolección, así que no es admisible: con
+ * peso 1 tampoco se garantiza el óptimo, solo el mejor plan encontrado.
+ */
+public class AStarPlanner {
+
+    private final RCPSPModel model;
+    private final CompactGraph graph;
+    private final String[] actions; // acción de cada tarea (null si no tiene)
+    private double weight = 2.0;
+    private double timeBudgetSeconds = 10.0;
+    private int maxOpenNodes = 200_000;
+    private int maxClosedNodes = 1_000_000;
+
+    public AStarPlanner(RCPSPModel model) {
+        this.model = model;
+        this.graph = model.getGraph().compact();
+        this.actions = new String[graph.size()];
+        for (int i = 0; i < graph.size(); i++) {
+            actions[i] = CPSATSolver.taskTypeToAction(graph.task(i));
+        }
+    }
+
+    /**
+     * Nodo de búsqueda: el plan se reconstruye siguiendo 'parent'
+     */
+    private static final class Node {
+        final GameState state;
+        final Node parent;
+        final String action;
+        final int g;
+        final double f;
+
+        Node(GameState state, Node parent, String action, int g, double f) {
+            this.state = state;
+            this.parent = parent;
+            this.action = action;
+            this.g = g;
+            this.f = f;
+        }
+    }
+
+    /**
+     * Clave del conjunto cerrado: el hash se calcula una vez y las colisiones
+     * se resuelven comparando el estado completo
+     */
+    private static final class StateKey {
+        final GameState state;
+        final long hash;
+
+        StateKey(GameState state) {
+            this.state = state;
+            this.hash = state.getStateHash();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof StateKey key && hash == key.hash && state.isSameSearchState(key.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+    }
+
+    public SearchResult search() {
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + (long) (timeBudgetSeconds * 1e9);
+        CPMHeuristic heuristic = new CPMHeuristic();
+        PrecedenceGraph precedence = model.getGraph();
+
+        PriorityQueue<Node> open = new PriorityQueue<>(
+            Comparator.comparingDouble((Node node) -> node.f).thenComparingInt(node -> -node.g));
+        long[] closedEvictions = {0};
+        Map<StateKey, Integer> closed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StateKey, Integer> eldest) {
+                boolean evict = size() > maxClosedNodes;
+                if (evict) {
+                    closedEvictions[0]++;
+                }
+                return evict;
+            }
+        };
+
+        GameState initial = new GameState();
+        initial.setVerbose(false);
+        initial.setTaskIndex(graph);
+        open.add(new Node(initial, null, null, initial.getCurrentTime(),
+                          initial.getCurrentTime() + weight * heuristic.calculate(initial, precedence)));
+        closed.put(new StateKey(initial), initial.getCurrentTime());
+
+        Node best = null;
+        long expanded = 0;
+        long generated = 0;
+        long duplicates = 0;
+        long evicted = 0;
+        int solutions = 0;
+        boolean evictedAny = false;
+
+        while (!open.isEmpty() && System.nanoTime() < deadline) {
+            Node node = open.poll();
+            if (best != null && node.g >= best.g) {
+                continue;
+            }
+            Integer known = closed.get(new StateKey(node.state));
+            if (known != null && known < node.g) {
+                continue; // se llegó antes al mismo estado por otro camino
+            }
+            expanded++;
+
+            for (Node child : expand(node, heuristic, precedence)) {
+                generated++;
+                if (best != null && child.g >= best.g) {
+                    continue;
+                }
+                if (child.state.hasReachedCastleAge()) {
+                    best = child;
+                    solutions++;
+                    continue;
+                }
+                StateKey key = new StateKey(child.state);
+                Integer previous = closed.get(key);
+                if (previous != null && previous <= child.g) {
+                    duplicates++;
+                    continue;
+                }
+                closed.put(key, child.g);
+                open.add(child);
+            }
+
+            if (open.size() > maxOpenNodes) {
+                evicted += trim(open);
+                evictedAny = true;
+            }
+        }
+
+        boolean exhausted = open.isEmpty() && !evictedAny && closedEvictions[0] == 0;
+        double wallTime = (System.nanoTime() - startNanos) / 1e9;
+        List<String> plan = best == null ? new ArrayList<>() : planOf(best);
+        return new SearchResult(plan, best == null ? -1 : best.g, exhausted && best != null,
+                                expanded, generated, duplicates, evicted + closedEvictions[0], solutions, wallTime);
+    }
+
+    /**
+     * Un sucesor por acción distinta entre las tareas listas (la primera en orden topológico)
+     */
+    private List<Node> expand(Node node, CPMHeuristic heuristic, PrecedenceGraph precedence) {
+        CompletedTasks completed = node.state.getCompleted();
+        Set<String> tried = new HashSet<>();
+        List<Node> children = new ArrayList<>();
+        for (int i = 0; i < graph.size(); i++) {
+            if (actions[i] == null || completed.contains(i) || !predecessorsDone(i, completed)
+                    || !tried.add(actions[i])) {
+                continue;
+            }
+            GameState state = node.state.clone();
+            if (!apply(state, actions[i])) {
+                continue;
+            }
+            state.markTaskCompleted(graph.id(i));
+            completeActionless(state);
+            int g = state.getCurrentTime();
+            children.add(new Node(state, node, actions[i], g, g + weight * heuristic.calculate(state, precedence)));
+        }
+        return children;
+    }
+
+    private boolean predecessorsDone(int task, CompletedTasks completed) {
+        for (int k = graph.predecessorStart(task); k < graph.predecessorStart(task + 1); k++) {
+            if (!completed.contains(graph.predecessor(k))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tareas sin acción en el simulador (p. ej. JOB) se dan por hechas en cuanto están listas
+     */
+    private void completeActionless(GameState state) {
+        CompletedTasks completed = state.getCompleted();
+        for (int i = 0; i < graph.size(); i++) {
+            if (actions[i] == null && !completed.contains(i) && predecessorsDone(i, completed)) {
+                state.markTaskCompleted(graph.id(i));
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la acción; false si el simulador no la llevó a cabo (no hubo progreso)
+     */
+    private static boolean apply(GameState state, String action) {
+        Age age = state.getCurrentAge();
+        int villagers = state.getVillagers().size();
+        int buildings = state.getBuildings().size();
+        long researched = state.getTechnologies().stream().filter(Technology::isResearched).count();
+
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(state);
+        simulator.setVerbose(false);
+        simulator.executeStep(action);
+
+        return state.getCurrentAge() != age
+            || state.getVillagers().size() != villagers
+            || state.getBuildings().size() != buildings
+            || state.getTechnologies().stream().filter(Technology::isResearched).count() != researched;
+    }
+
+    /**
+     * Conserva la mitad de la frontera con mejor f; devuelve cuántos nodos se descartaron
+     */
+    private int trim(PriorityQueue<Node> open) {
+        int keep = maxOpenNodes / 2;
+        List<Node> kept = new ArrayList<>(keep);
+        while (kept.size() < keep && !open.isEmpty()) {
+            kept.add(open.poll());
+        }
+        int dropped = open.size();
+        open.clear();
+        open.addAll(kept);
+        return dropped;
+    }
+
+    private static List<String> planOf(Node node) {
+        LinkedList<String> plan = new LinkedList<>();
+        for (Node current = node; current.parent != null; current = current.parent) {
+            plan.addFirst(current.action);
+        }
+        return new ArrayList<>(plan);
+    }
+
+    public void setWeight(double weight) {
+        this.weight = weight;
+    }
+
+    public void setTimeBudgetSeconds(double timeBudgetSeconds) {
+        this.timeBudgetSeconds = timeBudgetSeconds;
+    }
+
+    public void setMaxOpenNodes(int maxOpenNodes) {
+        this.maxOpenNodes = maxOpenNodes;
+    }
+
+    public void setMaxClosedNodes(int maxClosedNodes) {
+        this.maxClosedNodes = maxClosedNodes;
+    }
+}
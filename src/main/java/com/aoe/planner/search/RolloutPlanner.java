@@ -0,0 +1,206 @@
+package com.aoe.planner.search;
+
+import com.aoe.planner.model.GameState;
+import com.aoe.planner.simulation.DiscreteEventSimulator;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Planificador Monte Carlo por simulaciones (rollouts) con presupuesto de
+ * tiempo real.
+ *
+ * Cada rollout perturba una secuencia (el incumbente o una de las semillas:
+ * plan de CP-SAT, órdenes de BuildOrderLibrary) moviendo o intercambiando
+ * 1-3 acciones, y la puntúa con DiscreteEventSimulator hasta llegar a Castillos.
+ * - El incumbente guarda el GameState tras cada prefijo de su plan; un
+ *   rollout sobre él clona el estado del primer cambio y solo simula el resto
+ * - Los hilos de un ForkJoinPool lanzan rollouts independientes hasta agotar
+ *   el presupuesto; solo comparten el incumbente (inmutable, se sustituye entero)
+ * Las secuencias que no llegan a Castillos se penalizan como en el LNS.
+ */
+public class RolloutPlanner {
+
+    private static final long NOT_REACHED_PENALTY = 100_000;
+
+    private final List<List<String>> seeds;
+    private final int parallelism;
+    private double timeBudgetSeconds = 5.0;
+    private long seed = 0;
+
+    private volatile Incumbent incumbent;
+    private int improvements;
+
+    /**
+     * @param parallelism hilos del pool, 0 = todos los núcleos
+     */
+    public RolloutPlanner(int parallelism) {
+        this.seeds = new ArrayList<>();
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Secuencia de partida; se ignoran las vacías
+     */
+    public void addSeed(List<String> plan) {
+        if (!plan.isEmpty()) {
+            seeds.add(new ArrayList<>(plan));
+        }
+    }
+
+    /**
+     * Mejor plan conocido con los estados tras cada uno de sus prefijos
+     */
+    private static final class Incumbent {
+        final List<String> plan;
+        final long score;
+        final GameState[] prefixStates; // prefixStates[i] = estado antes de la acción i
+
+        Incumbent(List<String> plan, long score, GameState[] prefixStates) {
+            this.plan = plan;
+            this.score = score;
+            this.prefixStates = prefixStates;
+        }
+    }
+
+    public RolloutResult run() {
+        if (seeds.isEmpty()) {
+            throw new IllegalStateException("Se necesita al menos una secuencia semilla");
+        }
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + (long) (timeBudgetSeconds * 1e9);
+
+        for (List<String> plan : seeds) {
+            Incumbent candidate = withPrefixStates(plan);
+            if (incumbent == null || candidate.score < incumbent.score) {
+                incumbent = candidate;
+            }
+        }
+        long initialScore = incumbent.score;
+        improvements = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long rollouts = 0;
+        try {
+            List<Callable<Long>> workers = new ArrayList<>();
+            for (int w = 0; w < parallelism; w++) {
+                long workerSeed = seed * 1_000_003L + w;
+                workers.add(() -> rolloutLoop(new SplittableRandom(workerSeed), deadline));
+            }
+            for (Future<Long> future : pool.invokeAll(workers)) {
+                rollouts += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en un rollout", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Incumbent best = incumbent;
+        double wallTime = (System.nanoTime() - startNanos) / 1e9;
+        return new RolloutResult(best.score < NOT_REACHED_PENALTY ? best.plan : new ArrayList<>(),
+                                 makespanOf(best.score), makespanOf(initialScore), rollouts, improvements, wallTime);
+    }
+
+    private long rolloutLoop(SplittableRandom random, long deadline) {
+        long count = 0;
+        while (System.nanoTime() < deadline) {
+            Incumbent current = incumbent;
+            boolean fromIncumbent = seeds.size() == 1 || random.nextInt(4) != 0;
+            List<String> base = fromIncumbent ? current.plan : seeds.get(random.nextInt(seeds.size()));
+
+            List<String> candidate = new ArrayList<>(base);
+            int firstChange = perturb(candidate, random);
+            GameState start = fromIncumbent ? current.prefixStates[firstChange].clone() : initialState();
+            long score = score(candidate, fromIncumbent ? firstChange : 0, start);
+            count++;
+
+            if (score < current.score) {
+                offer(candidate, score);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Mueve o intercambia entre 1 y 3 acciones; devuelve la primera posición modificada
+     */
+    private static int perturb(List<String> plan, SplittableRandom random) {
+        int size = plan.size();
+        int firstChange = size;
+        if (size < 2) {
+            return 0;
+        }
+        int moves = 1 + random.nextInt(3);
+        for (int m = 0; m < moves; m++) {
+            int from = random.nextInt(size);
+            int to = random.nextInt(size);
+            if (from == to) {
+                continue;
+            }
+            if (random.nextBoolean()) {
+                Collections.swap(plan, from, to);
+            } else {
+                plan.add(to, plan.remove(from));
+            }
+            firstChange = Math.min(firstChange, Math.min(from, to));
+        }
+        return Math.min(firstChange, size - 1);
+    }
+
+    private synchronized void offer(List<String> plan, long score) {
+        if (score < incumbent.score) {
+            incumbent = withPrefixStates(plan);
+            improvements++;
+        }
+    }
+
+    /**
+     * Simula 'plan' desde la acción 'from' sobre 'state' (ya en ese punto)
+     */
+    private static long score(List<String> plan, int from, GameState state) {
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(state);
+        simulator.setVerbose(false);
+        for (int i = from; i < plan.size() && !state.hasReachedCastleAge(); i++) {
+            simulator.executeStep(plan.get(i));
+        }
+        long time = state.getCurrentTime();
+        return state.hasReachedCastleAge() ? time : NOT_REACHED_PENALTY + time;
+    }
+
+    private static Incumbent withPrefixStates(List<String> plan) {
+        GameState state = initialState();
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(state);
+        simulator.setVerbose(false);
+        GameState[] prefixStates = new GameState[plan.size()];
+        for (int i = 0; i < plan.size(); i++) {
+            prefixStates[i] = state.clone();
+            if (!state.hasReachedCastleAge()) {
+                simulator.executeStep(plan.get(i));
+            }
+        }
+        long time = state.getCurrentTime();
+        long score = state.hasReachedCastleAge() ? time : NOT_REACHED_PENALTY + time;
+        return new Incumbent(List.copyOf(plan), score, prefixStates);
+    }
+
+    private static GameState initialState() {
+        GameState state = new GameState();
+        state.setVerbose(false);
+        return state;
+    }
+
+    private static long makespanOf(long score) {
+        return score < NOT_REACHED_PENALTY ? score : -1;
+    }
+
+    public void setTimeBudgetSeconds(double timeBudgetSeconds) {
+        this.timeBudgetSeconds = timeBudgetSeconds;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
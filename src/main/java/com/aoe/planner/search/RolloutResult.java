@@ -0,0 +1,49 @@
+package com.aoe.planner.search;
+
+import java.util.*;
+
+/**
+ * Resultado de RolloutPlanner: mejor secuencia, su tiempo simulado hasta
+ * Castillos y el rendimiento de las simulaciones.
+ */
+public class RolloutResult {
+    private final List<String> plan;
+    private final long makespan;     // -1 si ninguna secuencia llegó a Castillos
+    private final long initialMakespan;
+    private final long rollouts;
+    private final int improvements;
+    private final double wallTime;   // segundos
+
+    public RolloutResult(List<String> plan, long makespan, long initialMakespan, long rollouts,
+                         int improvements, double wallTime) {
+        this.plan = plan;
+        this.makespan = makespan;
+        this.initialMakespan = initialMakespan;
+        this.rollouts = rollouts;
+        this.improvements = improvements;
+        this.wallTime = wallTime;
+    }
+
+    public boolean hasSolution() {
+        return makespan >= 0;
+    }
+
+    public double getRolloutsPerSecond() {
+        return wallTime > 0 ? rollouts / wallTime : 0;
+    }
+
+    // Getters
+    public List<String> getPlan() { return plan; }
+    public long getMakespan() { return makespan; }
+    public long getInitialMakespan() { return initialMakespan; }
+    public long getRollouts() { return rollouts; }
+    public int getImprovements() { return improvements; }
+    public double getWallTime() { return wallTime; }
+
+    @Override
+    public String toString() {
+        return String.format("RolloutResult{makespan=%d (semilla %d), rollouts=%d, improvements=%d, "
+                           + "wallTime=%.2fs, %.0f rollouts/s}",
+                           makespan, initialMakespan, rollouts, improvements, wallTime, getRolloutsPerSecond());
+    }
+}
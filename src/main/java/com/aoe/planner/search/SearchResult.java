@@ -0,0 +1,59 @@
+package com.aoe.planner.search;
+
+import java.util.*;
+
+/**
+ * Resultado de AStarPlanner: plan de acciones, tiempo simulado hasta
+ * Castillos y contadores de la búsqueda (para comparar con CP-SAT).
+ */
+public class SearchResult {
+    private final List<String> plan; // vacío si no se encontró plan
+    private final long makespan;     // -1 sin plan
+    private final boolean exhausted; // se vació la frontera sin desalojos: el plan es el mejor
+    private final long expanded;
+    private final long generated;
+    private final long duplicates;
+    private final long evicted;
+    private final int solutions;
+    private final double wallTime;   // segundos
+
+    public SearchResult(List<String> plan, long makespan, boolean exhausted, long expanded, long generated,
+                        long duplicates, long evicted, int solutions, double wallTime) {
+        this.plan = plan;
+        this.makespan = makespan;
+        this.exhausted = exhausted;
+        this.expanded = expanded;
+        this.generated = generated;
+        this.duplicates = duplicates;
+        this.evicted = evicted;
+        this.solutions = solutions;
+        this.wallTime = wallTime;
+    }
+
+    public boolean hasSolution() {
+        return !plan.isEmpty();
+    }
+
+    public double getNodesPerSecond() {
+        return wallTime > 0 ? expanded / wallTime : 0;
+    }
+
+    // Getters
+    public List<String> getPlan() { return plan; }
+    public long getMakespan() { return makespan; }
+    public boolean isExhausted() { return exhausted; }
+    public long getExpanded() { return expanded; }
+    public long getGenerated() { return generated; }
+    public long getDuplicates() { return duplicates; }
+    public long getEvicted() { return evicted; }
+    public int getSolutions() { return solutions; }
+    public double getWallTime() { return wallTime; }
+
+    @Override
+    public String toString() {
+        return String.format("SearchResult{makespan=%d, %s, expanded=%d, generated=%d, duplicates=%d, "
+                           + "evicted=%d, solutions=%d, wallTime=%.2fs, %.0f nodos/s}",
+                           makespan, exhausted ? "exhaustiva" : "anytime", expanded, generated, duplicates,
+                           evicted, solutions, wallTime, getNodesPerSecond());
+    }
+}
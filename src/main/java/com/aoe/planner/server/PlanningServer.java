@@ -0,0 +1,289 @@
+package com.aoe.planner.server;
+
+import com.aoe.planner.model.Resource;
+import com.aoe.planner.solver.*;
+import com.aoe.planner.sweep.Scenario;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio residente de planificación sobre HTTP local.
+ *
+ * Mantiene cargadas las bibliotecas nativas, el contexto de Spring y el
+ * código ya compilado por el JIT entre peticiones, así cada petición paga
+ * solo el tiempo de resolución.
+ *
+ * Endpoints:
+ *   GET|POST /plan?villagers=13&houses=2&maxTime=1200&resources=200/200/100
+ *                 &initialVillagers=3&preset=latency&timeLimit=5
+ *   GET      /health
+ *
+ * Los núcleos se reparten como en ScenarioSweep: C resoluciones concurrentes
+ * con N / C workers cada una, sea cual sea el perfil pedido. Los parámetros
+ * de /plan tienen cotas para que una petición no ocupe el servicio sin fin.
+ */
+public class PlanningServer {
+
+    static final int MAX_VILLAGERS = 100;
+    static final int MAX_HOUSES = 40;
+    static final int MAX_HORIZON = 7200;         // segundos de juego
+    static final int MAX_INITIAL_VILLAGERS = 20;
+    static final double MAX_TIME_LIMIT = 60.0;   // segundos de CP-SAT por petición
+
+    private final String host;
+    private final int port;
+    private final SolverProfile baseProfile;
+    private final Semaphore solveSlots;
+    private final int workersPerSolve;
+    private final AtomicLong requestCount;
+    private ScheduleCache cache;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PlanningServer(String host, int port, int maxConcurrentSolves, SolverProfile baseProfile) {
+        this.host = host;
+        this.port = port;
+        this.baseProfile = baseProfile;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int concurrentSolves = Math.max(1, Math.min(maxConcurrentSolves, cores));
+        this.solveSlots = new Semaphore(concurrentSolves);
+        this.workersPerSolve = Math.max(1, cores / concurrentSolves);
+        this.requestCount = new AtomicLong();
+    }
+
+    /**
+     * Las aperturas estándar se repiten mucho: con caché se responden sin CP-SAT
+     */
+    public void setCache(ScheduleCache cache) {
+        this.cache = cache;
+    }
+
+    public void start() throws IOException {
+        NativeLibraries.ensureLoaded();
+        warmUp();
+
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.createContext("/plan", this::handlePlan);
+        server.createContext("/health", this::handleHealth);
+        executor = createRequestExecutor();
+        server.setExecutor(executor);
+        server.start();
+
+        System.out.println("Servicio de planificación escuchando en http://" + host + ":" + port + "/plan");
+        System.out.println("Resoluciones concurrentes: " + solveSlots.availablePermits()
+                         + " | Workers CP-SAT por resolución: " + workersPerSolve);
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Hilos virtuales si la JVM los ofrece (Java 21+); si no, un pool acotado
+     */
+    private ExecutorService createRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            System.out.println("Peticiones atendidas con hilos virtuales");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            System.out.println("Peticiones atendidas con pool de " + threads + " hilos");
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /**
+     * Una resolución silenciosa del modelo estándar para calentar el JIT.
+     * No pasa por la caché: su resultado de 2 s no debe responder peticiones.
+     */
+    private void warmUp() {
+        long start = System.nanoTime();
+        solve(new Scenario(13, 2, 1200, Resource.parse("200/200/100"), 3),
+              SolverProfile.latency(), false);
+        System.out.println(String.format("Calentamiento completado en %.0f ms",
+                                       (System.nanoTime() - start) / 1e6));
+    }
+
+    private SolverResult solve(Scenario scenario, SolverProfile profile, boolean useCache) {
+        profile.setLogSearchProgress(false);
+        profile.setWorkers(workersPerSolve);
+        CPSATSolver solver = new CPSATSolver(scenario.toModel());
+        solver.setProfile(profile);
+        solver.setVerbose(false);
+        solver.setWarmStart(true);
+        solver.setCache(useCache ? cache : null);
+        return solver.solveSchedule();
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        String body = "{\"status\":\"ok\",\"requests\":" + requestCount.get();
+        if (cache != null) {
+            body += ",\"cacheSize\":" + cache.size() + ",\"cacheHits\":" + cache.getHits()
+                  + ",\"cacheMisses\":" + cache.getMisses();
+        }
+        respond(exchange, 200, body + "}");
+    }
+
+    private void handlePlan(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        long start = System.nanoTime();
+
+        try {
+            Map<String, String> params = readParameters(exchange);
+            Scenario scenario = new Scenario(
+                intParam(params, "villagers", 13, 1, MAX_VILLAGERS),
+                intParam(params, "houses", 2, 0, MAX_HOUSES),
+                intParam(params, "maxTime", 1200, 1, MAX_HORIZON),
+                Resource.parse(params.getOrDefault("resources", "200/200/100")),
+                intParam(params, "initialVillagers", 3, 1, MAX_INITIAL_VILLAGERS)
+            );
+
+            SolverProfile profile = params.containsKey("preset")
+                ? SolverProfile.fromName(params.get("preset"))
+                : baseProfile.copy();
+            if (params.containsKey("timeLimit")) {
+                profile.setMaxTimeInSeconds(timeLimitParam(params.get("timeLimit")));
+            }
+            // Los perfiles largos (optimal: 300 s) también quedan acotados
+            profile.setMaxTimeInSeconds(Math.min(profile.getMaxTimeInSeconds(), MAX_TIME_LIMIT));
+
+            SolverResult result;
+            solveSlots.acquire();
+            try {
+                result = solve(scenario, profile, true);
+            } finally {
+                solveSlots.release();
+            }
+
+            double elapsedMillis = (System.nanoTime() - start) / 1e6;
+            respond(exchange, 200, toJson(scenario, result, elapsedMillis));
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, "{\"error\":\"" + escape(e.getMessage()) + "\"}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "{\"error\":\"interrumpido\"}");
+        } catch (RuntimeException e) {
+            respond(exchange, 500, "{\"error\":\"" + escape(e.toString()) + "\"}");
+        }
+    }
+
+    private Map<String, String> readParameters(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseQuery(exchange.getRequestURI().getRawQuery(), params);
+        if ("POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            try (InputStream body = exchange.getRequestBody()) {
+                parseQuery(new String(body.readAllBytes(), StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseQuery(String query, Map<String, String> params) {
+        if (query == null || query.isBlank()) {
+            return;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                           URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue, int min, int max) {
+        String value = params.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parámetro entero inválido: " + name + "=" + value);
+        }
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException("Parámetro fuera de rango: " + name + "=" + value
+                                             + " (entre " + min + " y " + max + ")");
+        }
+        return parsed;
+    }
+
+    private static double timeLimitParam(String value) {
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parámetro numérico inválido: timeLimit=" + value);
+        }
+        if (!(parsed > 0) || parsed > MAX_TIME_LIMIT) {
+            throw new IllegalArgumentException("Parámetro fuera de rango: timeLimit=" + value
+                                             + " (entre 0 y " + MAX_TIME_LIMIT + ")");
+        }
+        return parsed;
+    }
+
+    private static String toJson(Scenario scenario, SolverResult result, double elapsedMillis) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"scenario\":\"").append(scenario.getName()).append("\"");
+        json.append(",\"status\":\"").append(result.getStatus()).append("\"");
+        if (result.getReason() != null) {
+            json.append(",\"reason\":\"").append(escape(result.getReason())).append("\"");
+        }
+        json.append(",\"makespan\":").append(result.getMakespan());
+        json.append(",\"bound\":").append(String.format(Locale.ROOT, "%.0f", result.getBestBound()));
+        json.append(",\"solveSeconds\":").append(String.format(Locale.ROOT, "%.3f", result.getWallTime()));
+        json.append(",\"elapsedMillis\":").append(String.format(Locale.ROOT, "%.1f", elapsedMillis));
+
+        json.append(",\"schedule\":[");
+        List<Map.Entry<String, Long>> starts = new ArrayList<>(result.getStartTimes().entrySet());
+        starts.sort(Map.Entry.comparingByValue());
+        for (int i = 0; i < starts.size(); i++) {
+            if (i > 0) json.append(",");
+            json.append("{\"task\":\"").append(starts.get(i).getKey())
+                .append("\",\"start\":").append(starts.get(i).getValue()).append("}");
+        }
+        json.append("]");
+
+        json.append(",\"plan\":[");
+        List<String> plan = result.getPlan();
+        for (int i = 0; i < plan.size(); i++) {
+            if (i > 0) json.append(",");
+            json.append("\"").append(plan.get(i)).append("\"");
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+}
@@ -1,8 +1,8 @@
 package com.aoe.planner.solver;
 
+import com.aoe.planner.algorithm.CompactGraph;
 import com.aoe.planner.algorithm.PrecedenceGraph;
 import com.aoe.planner.model.*;
-import com.google.ortools.Loader;
 import com.google.ortools.sat.*;
 
 import java.util.*;
@@ -12,8 +12,23 @@ public class CPSATSolver {
     private RCPSPModel rcpspModel;
     private CpModel model;
     private Map<String, IntVar> startTimes;
-    private Map<String, IntVar> endTimes;
+    private Map<String, LinearExpr> endTimes;
     private Map<String, IntervalVar> intervals;
+    private ResourceFlowModel resourceFlow;
+    private List<List<String>> symmetryChains;
+    
+    // Warm start: hints desde un plan constructivo y/o una ejecución previa
+    private boolean warmStart;
+    private Map<String, Long> previousStartTimes;
+    
+    private SolverProfile profile;
+    private boolean verbose;
+    private boolean lexicographic;
+    private boolean decideAllocation;
+    private Map<String, Long> startWeights;
+    private ScheduleCache cache;
+    // false con objetivo de fase: la cota de CP-SAT no es una cota del makespan
+    private boolean makespanObjective;
     
     public CPSATSolver(RCPSPModel rcpspModel) {
         this.rcpspModel = rcpspModel;
@@ -21,22 +36,219 @@ public class CPSATSolver {
         this.startTimes = new HashMap<>();
         this.endTimes = new HashMap<>();
         this.intervals = new HashMap<>();
+        this.symmetryChains = new ArrayList<>();
+        this.warmStart = false;
+        this.previousStartTimes = new HashMap<>();
+        this.startWeights = new HashMap<>();
+        this.profile = SolverProfile.defaults();
+        this.verbose = true;
+    }
+    
+    /**
+     * Con verbose=false no se imprime el progreso (útil con varias resoluciones en paralelo)
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+    
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+    
+    public void setProfile(SolverProfile profile) {
+        this.profile = profile;
+    }
+    
+    /**
+     * Tras el makespan óptimo, re-optimiza en el mismo modelo el ocio del TC
+     * y luego los traslados de aldeanos, cada etapa sin empeorar las anteriores
+     */
+    public void setLexicographic(boolean lexicographic) {
+        this.lexicographic = lexicographic;
+    }
+    
+    /**
+     * Con true, CP-SAT decide el recurso de cada aldeano en lugar de las reglas
+     * fijas de GameState; el resultado incluye el AllocationPlan elegido
+     */
+    public void setDecideAllocation(boolean decideAllocation) {
+        this.decideAllocation = decideAllocation;
+    }
+    
+    /**
+     * Pesos de los inicios de tareas libres en el objetivo secundario de un
+     * submodelo con tareas fijadas (1 por defecto); el LNS los sortea para
+     * diversificar el orden a igual makespan
+     */
+    public void setStartWeights(Map<String, Long> startWeights) {
+        this.startWeights = startWeights;
+    }
+    
+    /**
+     * Con caché, un modelo con la misma huella se responde sin llamar a CP-SAT
+     */
+    public void setCache(ScheduleCache cache) {
+        this.cache = cache;
+    }
+    
+    /**
+     * Activa los hints construidos por ConstructiveScheduler antes de resolver
+     */
+    public void setWarmStart(boolean warmStart) {
+        this.warmStart = warmStart;
+    }
+    
+    /**
+     * Reutiliza los tiempos de inicio de una ejecución previa como hints
+     * para las tareas con el mismo id (tienen prioridad sobre el plan constructivo)
+     */
+    public void setPreviousSolution(Map<String, Long> previousStartTimes) {
+        this.previousStartTimes = previousStartTimes;
     }
     
     public List<String> solve() {
-        System.out.println("=== Inicializando CP-SAT Solver ===");
+        return solveSchedule().getPlan();
+    }
+    
+    public SolverResult solveSchedule() {
+        return solveSchedule(null);
+    }
+    
+    /**
+     * Resuelve publicando cada incumbente que mejora el makespan en 'listener'.
+     * El listener puede detener la búsqueda antes del límite de tiempo.
+     */
+    public SolverResult solveSchedule(SolutionListener listener) {
+        log("=== Inicializando CP-SAT Solver ===");
+        
+        String fingerprint = null;
+        if (cache != null) {
+            fingerprint = ModelFingerprint.of(rcpspModel) + (lexicographic ? ":lex" : "")
+                        + (decideAllocation ? ":alloc" : "");
+            SolverResult cached = cache.get(fingerprint, profile.getRelativeGap());
+            if (cached == null) {
+                // Una entrada peor que lo pedido no se sirve, pero arranca la búsqueda
+                SolverResult weaker = cache.peek(fingerprint);
+                if (weaker != null) {
+                    log("Plan en caché sin el gap pedido (" + weaker + "), se usa como hint");
+                    Map<String, Long> hints = new HashMap<>(weaker.getStartTimes());
+                    hints.putAll(previousStartTimes);
+                    previousStartTimes = hints;
+                }
+            } else {
+                log("✓ Plan recuperado de caché (" + fingerprint.substring(0, 12) + "): " + cached);
+                if (listener != null) {
+                    listener.onSolution(new IncumbentSolution(1, cached.getMakespan(), cached.getBestBound(),
+                                                              0.0, cached.getStartTimes()));
+                }
+                return cached;
+            }
+        }
         
-        // Cargar biblioteca nativa de OR-Tools
-        Loader.loadNativeLibraries();
+        // Cargar biblioteca nativa de OR-Tools (una vez por proceso)
+        NativeLibraries.ensureLoaded();
         
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        long buildStart = System.nanoTime();
+        TimeWindows windows = TimeWindows.compute(rcpspModel);
+        String emptyWindow = emptyWindowReason(windows);
+        if (emptyWindow != null) {
+            log("✗ Modelo inviable: " + emptyWindow);
+            return SolverResult.infeasible(emptyWindow, (System.nanoTime() - buildStart) / 1e9);
+        }
+        IntVar makespan = buildModel(windows);
+        
+        // 6. Resolver
+        log("\n=== Resolviendo con CP-SAT ===");
+        CpSolver solver = new CpSolver();
+        profile.applyTo(solver.getParameters());
+        log("Perfil: " + profile);
+        
+        CpSolverStatus status;
+        if (listener != null) {
+            IncumbentCallback callback = new IncumbentCallback(listener, makespan, startTimes, makespanObjective);
+            callback.setVerbose(verbose);
+            status = solver.solve(model, callback);
+            log("Incumbentes publicados: " + callback.getSolutionCount());
+        } else {
+            status = solver.solve(model);
+        }
+        
+        log("\n=== Resultado ===");
+        log("Estado: " + status);
+        
+        if (status == CpSolverStatus.OPTIMAL) {
+            log("✓ Solución ÓPTIMA encontrada");
+        } else if (status == CpSolverStatus.FEASIBLE) {
+            log("✓ Solución VIABLE encontrada (no necesariamente óptima)");
+        } else {
+            log("✗ No se encontró solución");
+            return SolverResult.noSolution(status, solver.wallTime());
+        }
+        
+        long optimalTime = solver.value(makespan);
+        log("Tiempo total (makespan): " + optimalTime + " segundos (" + 
+                         String.format("%.2f", optimalTime / 60.0) + " minutos)");
+        
+        Map<String, Long> solvedStarts = new LinkedHashMap<>();
+        for (Task task : graph.getAllTasks()) {
+            solvedStarts.put(task.getId(), solver.value(startTimes.get(task.getId())));
+        }
+        double wallTime = solver.wallTime();
+        AllocationPlan allocation = resourceFlow.readAllocation(solver, solvedStarts);
+        
+        // 7. Etapas lexicográficas (opcional)
+        Map<String, Long> objectives = new LinkedHashMap<>();
+        objectives.put("makespan", optimalTime);
+        if (lexicographic && rcpspModel.getMilestoneId() == null) {
+            long stagesStart = System.nanoTime();
+            CpSolver last = solveLexicographicStages(graph, makespan, optimalTime,
+                                                     status == CpSolverStatus.OPTIMAL,
+                                                     solver, objectives);
+            if (last != solver) {
+                solvedStarts = new LinkedHashMap<>();
+                for (Task task : graph.getAllTasks()) {
+                    solvedStarts.put(task.getId(), last.value(startTimes.get(task.getId())));
+                }
+                allocation = resourceFlow.readAllocation(last, solvedStarts);
+            }
+            wallTime += (System.nanoTime() - stagesStart) / 1e9;
+        }
+        
+        // 8. Extraer plan de acciones
+        List<String> plan = extractPlan(graph, solvedStarts);
+        
+        // Con objetivo de fase solo se conoce la cota trivial del makespan
+        double makespanBound = makespanObjective ? solver.bestObjectiveBound() : 0;
+        SolverResult result = new SolverResult(status, optimalTime, makespanBound,
+                                               wallTime, solvedStarts, plan);
+        if (objectives.size() > 1) {
+            result.getObjectives().putAll(objectives);
+        }
+        if (allocation != null) {
+            log("Reparto decidido: " + allocation);
+            result.setAllocation(allocation);
+        }
+        if (cache != null) {
+            cache.put(fingerprint, result);
+        }
+        return result;
+    }
+    
+    /**
+     * Construye variables, restricciones, objetivo y hints; devuelve el makespan
+     */
+    private IntVar buildModel(TimeWindows windows) {
         PrecedenceGraph graph = rcpspModel.getGraph();
         int maxTime = rcpspModel.getMaxTime();
         
-        System.out.println("Tareas totales: " + graph.size());
-        System.out.println("Tiempo máximo: " + maxTime + " segundos");
+        log("Tareas totales: " + graph.size());
+        log("Tiempo máximo: " + maxTime + " segundos");
         
-        // 1. Crear variables de decisión
-        createDecisionVariables(graph, maxTime);
+        // 1. Crear variables de decisión (dominios acotados por CPM)
+        createDecisionVariables(graph, windows);
         
         // 2. Agregar restricciones de precedencia
         addPrecedenceConstraints(graph);
@@ -44,104 +256,209 @@ public class CPSATSolver {
         // 3. Agregar restricción de Town Center (no-overlap)
         addTownCenterConstraint(graph);
         
+        // 3b. Romper simetrías entre tareas intercambiables
+        addSymmetryBreaking(graph);
+        
         // 4. Agregar restricciones de recursos
         addResourceConstraints(graph);
+        addRenewableConstraints(graph);
         
         // 5. Definir objetivo: minimizar makespan
         IntVar makespan = model.newIntVar(0, maxTime, "makespan");
         
         // El makespan debe ser mayor o igual al tiempo de fin de todas las tareas
+        // (basta con las tareas sin sucesores, el resto queda implicado)
+        CompactGraph compact = graph.compact();
         for (Task task : graph.getAllTasks()) {
-            model.addLessOrEqual(endTimes.get(task.getId()), makespan);
+            if (compact.successorCount(compact.indexOf(task.getId())) == 0) {
+                model.addLessOrEqual(endTimes.get(task.getId()), makespan);
+            }
         }
         
-        // Minimizar makespan
-        model.minimize(makespan);
-        
-        // 6. Resolver
-        System.out.println("\n=== Resolviendo con CP-SAT ===");
-        CpSolver solver = new CpSolver();
-        solver.getParameters().setMaxTimeInSeconds(60.0); // Timeout de 60 segundos
-        solver.getParameters().setNumSearchWorkers(4); // Paralelización
-        solver.getParameters().setLogSearchProgress(true);
+        // Minimizar makespan (en un submodelo de fase, primero el fin del hito;
+        // con tareas fijadas, las libres lo antes posible a igual makespan)
+        makespanObjective = rcpspModel.getMilestoneId() == null && rcpspModel.getFixedStarts().isEmpty();
+        if (makespanObjective) {
+            model.minimize(makespan);
+        } else {
+            addPhaseObjective(graph, makespan);
+        }
         
-        CpSolverStatus status = solver.solve(model);
+        // Hints de arranque (opcional)
+        addSolutionHints(graph, makespan);
         
-        System.out.println("\n=== Resultado ===");
-        System.out.println("Estado: " + status);
+        return makespan;
+    }
+    
+    /**
+     * Construye el modelo sin resolverlo y lo empaqueta con la tabla
+     * id de tarea → índice de variable, para guardarlo y resolverlo después
+     * (solo la etapa de makespan; sin caché ni etapas lexicográficas)
+     */
+    public CompiledModel compile(String name) {
+        NativeLibraries.ensureLoaded();
+        TimeWindows windows = TimeWindows.compute(rcpspModel);
+        String emptyWindow = emptyWindowReason(windows);
+        if (emptyWindow != null) {
+            throw new IllegalStateException("Modelo inviable (" + name + "): " + emptyWindow);
+        }
+        IntVar makespan = buildModel(windows);
         
-        if (status == CpSolverStatus.OPTIMAL) {
-            System.out.println("✓ Solución ÓPTIMA encontrada");
-        } else if (status == CpSolverStatus.FEASIBLE) {
-            System.out.println("✓ Solución VIABLE encontrada (no necesariamente óptima)");
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        List<CompiledModel.TaskEntry> tasks = new ArrayList<>();
+        for (Task task : graph.getAllTasks()) {
+            tasks.add(new CompiledModel.TaskEntry(task.getId(), startTimes.get(task.getId()).getIndex(),
+                                                  task.getDuration(), taskTypeToAction(task)));
+        }
+        return new CompiledModel(name, model.model(), tasks, makespan.getIndex());
+    }
+    
+    /**
+     * Etapas 2 y 3 sobre el mismo CpModel: se fija el makespan, se cambia el
+     * objetivo y se arranca desde el incumbente de la etapa anterior.
+     * Devuelve el solver con la última solución aceptada.
+     */
+    private CpSolver solveLexicographicStages(PrecedenceGraph graph, IntVar makespan,
+                                              long bestMakespan, boolean makespanOptimal,
+                                              CpSolver previous,
+                                              Map<String, Long> objectives) {
+        log("\n=== Optimización lexicográfica ===");
+        if (makespanOptimal) {
+            model.addEquality(makespan, bestMakespan);
         } else {
-            System.out.println("✗ No se encontró solución");
-            return new ArrayList<>();
+            model.addLessOrEqual(makespan, bestMakespan);
         }
         
-        long optimalTime = solver.value(makespan);
-        System.out.println("Tiempo total (makespan): " + optimalTime + " segundos (" + 
-                         String.format("%.2f", optimalTime / 60.0) + " minutos)");
-        
-        // 7. Extraer plan de acciones
-        List<String> plan = extractPlan(graph, solver);
+        String[] names = {"ocioTC", "traslados"};
+        LinearExpr[] stages = {townCenterIdleExpression(graph), resourceFlow.transfersExpression()};
         
-        return plan;
+        for (int i = 0; i < stages.length; i++) {
+            LinearExpr objective = stages[i];
+            if (objective.numElements() == 0) {
+                objectives.put(names[i], objective.getOffset());
+                log("Etapa " + names[i] + ": constante (" + objective.getOffset() + "), se omite");
+                continue;
+            }
+            
+            model.clearObjective();
+            model.minimize(objective);
+            model.clearHints();
+            for (Task task : graph.getAllTasks()) {
+                IntVar var = startTimes.get(task.getId());
+                if (var.getDomain().size() > 1) {
+                    model.addHint(var, previous.value(var));
+                }
+            }
+            model.addHint(makespan, bestMakespan);
+            resourceFlow.addAllocationHints(model, previous);
+            
+            CpSolver stageSolver = new CpSolver();
+            profile.applyTo(stageSolver.getParameters());
+            CpSolverStatus stageStatus = stageSolver.solve(model);
+            if (stageStatus != CpSolverStatus.OPTIMAL && stageStatus != CpSolverStatus.FEASIBLE) {
+                log("Etapa " + names[i] + ": " + stageStatus + ", se conserva el plan anterior");
+                break;
+            }
+            
+            long value = Math.round(stageSolver.objectiveValue());
+            log(String.format("Etapa %s: %d (%s, %.2fs)", names[i], value, stageStatus, stageSolver.wallTime()));
+            objectives.put(names[i], value);
+            previous = stageSolver;
+            
+            // La etapa siguiente no puede empeorar esta
+            model.addLessOrEqual(objective, value);
+        }
+        return previous;
+    }
+    
+    /**
+     * Con makespan y duraciones fijos, el ocio total del TC hasta el makespan es
+     * constante; se minimiza la suma de inicios de las tareas del TC, que
+     * adelanta la producción y deja los huecos del TC lo más tarde posible
+     */
+    private LinearExpr townCenterIdleExpression(PrecedenceGraph graph) {
+        LinearExprBuilder idle = LinearExpr.newBuilder();
+        for (Task task : graph.getTasksRequiringTC()) {
+            idle.add(startTimes.get(task.getId()));
+        }
+        return idle.build();
     }
     
-    private void createDecisionVariables(PrecedenceGraph graph, int maxTime) {
-        System.out.println("\nCreando variables de decisión...");
+    /**
+     * Causa de inviabilidad si alguna tarea tiene ES > LS, o null
+     */
+    private static String emptyWindowReason(TimeWindows windows) {
+        String taskId = windows.firstInfeasibleTask();
+        if (taskId == null) {
+            return null;
+        }
+        return "ventana vacía para " + taskId + ": [" + windows.getEarliestStart(taskId)
+             + ", " + windows.getLatestStart(taskId) + "]";
+    }
+    
+    private void createDecisionVariables(PrecedenceGraph graph, TimeWindows windows) {
+        log("\nCreando variables de decisión...");
         
+        int fixedCount = 0;
         for (Task task : graph.getAllTasks()) {
             String id = task.getId();
+            int es = windows.getEarliestStart(id);
+            int ls = windows.getLatestStart(id);
             
-            // Variable: tiempo de inicio
-            IntVar start = model.newIntVar(0, maxTime, id + "_start");
+            // Variable: tiempo de inicio en [ES, LS] (constante si ya está fijado)
+            IntVar start;
+            if (es == ls) {
+                start = model.newConstant(es);
+                fixedCount++;
+            } else {
+                start = model.newIntVar(es, ls, id + "_start");
+            }
             startTimes.put(id, start);
             
-            // Variable: tiempo de fin
-            IntVar end = model.newIntVar(0, maxTime, id + "_end");
-            endTimes.put(id, end);
-            
-            // Restricción: end = start + duration
-            model.addEquality(end, LinearExpr.sum(new LinearArgument[]{
-                start,
-                LinearExpr.constant(task.getDuration())
-            }));
-            
-            // Crear intervalo para restricciones no-overlap
-            IntervalVar interval = model.newIntervalVar(
-                start,
-                LinearExpr.constant(task.getDuration()),
-                end,
-                id + "_interval"
-            );
+            // Intervalo de tamaño fijo: el fin es la expresión start + duration
+            IntervalVar interval = model.newFixedSizeIntervalVar(start, task.getDuration(), id + "_interval");
             intervals.put(id, interval);
+            endTimes.put(id, interval.getEndExpr());
         }
         
-        System.out.println("Variables creadas: " + (startTimes.size() * 2) + " (start + end)");
+        log("Variables creadas: " + (startTimes.size() - fixedCount) 
+                         + " (start), fijadas por CPM: " + fixedCount);
+        log("Tamaño de dominios: " + windows.totalDomainSize() 
+                         + " (sin preprocesar: " + (long) startTimes.size() * (rcpspModel.getMaxTime() + 1) + ")");
+        List<String> criticalPath = windows.getCriticalPath();
+        if (!criticalPath.isEmpty()) {
+            log("Camino crítico por precedencias: " + windows.getCriticalPathLength() + "s (desde t="
+                + windows.getEarliestStart(criticalPath.get(0)) + ": " + String.join(" → ", criticalPath) + ")");
+        }
     }
     
     private void addPrecedenceConstraints(PrecedenceGraph graph) {
-        System.out.println("Agregando restricciones de precedencia...");
+        log("Agregando restricciones de precedencia...");
         
+        // Solo la reducción transitiva: una arista a → c implicada por otro
+        // camino (a → b → c) sobra
+        CompactGraph compact = graph.compact();
         int constraintCount = 0;
-        for (Task task : graph.getAllTasks()) {
-            for (String predId : task.getPredecessorIds()) {
+        for (int i = 0; i < compact.size(); i++) {
+            for (int k = compact.predecessorStart(i); k < compact.predecessorStart(i + 1); k++) {
+                if (compact.isRedundant(k)) {
+                    continue;
+                }
                 // Restricción: start(task) >= end(predecessor)
                 model.addGreaterOrEqual(
-                    startTimes.get(task.getId()),
-                    endTimes.get(predId)
+                    startTimes.get(compact.id(i)),
+                    endTimes.get(compact.id(compact.predecessor(k)))
                 );
                 constraintCount++;
             }
         }
         
-        System.out.println("Restricciones de precedencia: " + constraintCount);
+        log("Restricciones de precedencia: " + constraintCount
+            + " (" + compact.redundantEdgeCount() + " redundantes eliminadas)");
     }
     
     private void addTownCenterConstraint(PrecedenceGraph graph) {
-        System.out.println("Agregando restricción de Town Center (no-overlap)...");
+        log("Agregando restricción de Town Center (no-overlap)...");
         
         List<Task> tcTasks = graph.getTasksRequiringTC();
         List<IntervalVar> tcIntervals = new ArrayList<>();
@@ -153,42 +470,201 @@ public class CPSATSolver {
         // Restricción: ninguna tarea del TC se solapa con otra
         model.addNoOverlap(tcIntervals);
         
-        System.out.println("Tareas que usan TC: " + tcTasks.size());
+        log("Tareas que usan TC: " + tcTasks.size());
     }
     
     private void addResourceConstraints(PrecedenceGraph graph) {
-        System.out.println("Agregando restricciones de recursos...");
+        log("Agregando restricciones de recursos...");
+        
+        // Comida, madera y oro como reservorios: ingresos por aldeano
+        // creado y consumo del coste de cada tarea al iniciarla
+        resourceFlow = new ResourceFlowModel(rcpspModel);
+        resourceFlow.setDecideAllocation(decideAllocation);
+        resourceFlow.addConstraints(model, startTimes, endTimes);
+        
+        log("Balances de recursos: " + resourceFlow.getBalanceCount()
+                         + " (literales de orden: " + resourceFlow.getOrderLiteralCount() + ")");
+    }
+    
+    /**
+     * Un cumulative por recurso renovable: la demanda de las tareas en curso
+     * nunca supera la capacidad
+     */
+    private void addRenewableConstraints(PrecedenceGraph graph) {
+        for (RenewableResource resource : graph.getRenewableResources()) {
+            CumulativeConstraint cumulative = model.addCumulative(resource.getCapacity());
+            int demanding = 0;
+            for (Task task : graph.getAllTasks()) {
+                int demand = task.getRenewableDemand(resource.getId());
+                if (demand > 0 && task.getDuration() > 0) {
+                    cumulative.addDemand(intervals.get(task.getId()), demand);
+                    demanding++;
+                }
+            }
+            log("Recurso renovable " + resource.getId() + ": capacidad " + resource.getCapacity()
+                + ", " + demanding + " tareas");
+        }
+    }
+    
+    /**
+     * Objetivo lexicográfico de una fase en una sola suma ponderada:
+     * fin del hito >> makespan + Σ inicios de las tareas libres.
+     * El segundo término adelanta las tareas que no afectan al hito.
+     */
+    private void addPhaseObjective(PrecedenceGraph graph, IntVar makespan) {
+        List<LinearArgument> terms = new ArrayList<>();
+        List<Long> coefficients = new ArrayList<>();
+        
+        long freeWeight = 0;
+        for (Task task : graph.getAllTasks()) {
+            if (!rcpspModel.isFixed(task.getId())) {
+                long startWeight = startWeights.getOrDefault(task.getId(), 1L);
+                terms.add(startTimes.get(task.getId()));
+                coefficients.add(startWeight);
+                freeWeight += startWeight;
+            }
+        }
+        
+        long weight = (freeWeight + 2) * (rcpspModel.getMaxTime() + 1L);
+        if (rcpspModel.getMilestoneId() != null) {
+            terms.add(makespan);
+            coefficients.add(1L);
+            terms.add(endTimes.get(rcpspModel.getMilestoneId()));
+            coefficients.add(weight);
+        } else {
+            terms.add(makespan);
+            coefficients.add(weight);
+        }
         
-        // Simplificado: las restricciones de recursos se validan
-        // durante la simulación posterior, no en el modelo CP-SAT
-        // (para no complicar el modelo inicial)
+        model.minimize(LinearExpr.weightedSum(terms.toArray(new LinearArgument[0]),
+                                              coefficients.stream().mapToLong(Long::longValue).toArray()));
+        log("Objetivo de fase: fin de " + (rcpspModel.getMilestoneId() != null
+                                           ? rcpspModel.getMilestoneId() : "makespan") + " (peso " + weight + ")");
+    }
+    
+    private void addSymmetryBreaking(PrecedenceGraph graph) {
+        int orderings = 0;
+        for (List<String> chain : graph.getInterchangeableChains()) {
+            List<String> current = new ArrayList<>();
+            for (String taskId : chain) {
+                if (!current.isEmpty() && !canOrder(current.get(current.size() - 1), taskId)) {
+                    keepChain(current);
+                    current = new ArrayList<>();
+                }
+                current.add(taskId);
+            }
+            keepChain(current);
+        }
+        
+        for (List<String> chain : symmetryChains) {
+            for (int i = 1; i < chain.size(); i++) {
+                model.addLessOrEqual(startTimes.get(chain.get(i - 1)), startTimes.get(chain.get(i)));
+                orderings++;
+            }
+        }
+        log("Simetrías rotas: " + orderings + " órdenes en " + symmetryChains.size() + " grupos");
+    }
+    
+    /**
+     * Los aldeanos (reparto por orden) y el avance a Feudal (reasignación) no son
+     * intercambiables para el flujo de recursos; tampoco las tareas fijadas,
+     * el hito de una fase ni pares cuyas cotas de liberación van al revés.
+     */
+    private boolean canOrder(String first, String second) {
+        Task task = rcpspModel.getGraph().getTask(second);
+        if (task.getType() == TaskType.CREATE_VILLAGER || task.getType() == TaskType.ADVANCE_FEUDAL) {
+            return false;
+        }
+        if (rcpspModel.isFixed(first) || rcpspModel.isFixed(second)
+                || second.equals(rcpspModel.getMilestoneId()) || first.equals(rcpspModel.getMilestoneId())) {
+            return false;
+        }
+        return rcpspModel.getReleaseTime(first) <= rcpspModel.getReleaseTime(second);
+    }
+    
+    private void keepChain(List<String> chain) {
+        if (chain.size() > 1) {
+            symmetryChains.add(chain);
+        }
+    }
+    
+    private void addSolutionHints(PrecedenceGraph graph, IntVar makespan) {
+        if (!warmStart && previousStartTimes.isEmpty()) {
+            return;
+        }
+        
+        Map<String, Long> hints = new HashMap<>();
+        if (warmStart) {
+            ConstructiveScheduler constructive = new ConstructiveScheduler(rcpspModel, resourceFlow);
+            constructive.setVerbose(verbose);
+            hints.putAll(constructive.build());
+            log("Plan constructivo (hint): makespan " 
+                             + ConstructiveScheduler.makespanOf(graph, hints) + " segundos");
+        }
         
-        // En versión completa, modelarías:
-        // - Acumulación de recursos en cada momento
-        // - Consumo de recursos por tareas
-        // - Balance: recursos_disponibles >= recursos_necesarios
+        int reused = 0;
+        for (Map.Entry<String, Long> entry : previousStartTimes.entrySet()) {
+            if (graph.getTask(entry.getKey()) != null) {
+                hints.put(entry.getKey(), entry.getValue());
+                reused++;
+            }
+        }
+        if (reused > 0) {
+            log("Hints reutilizados de la ejecución previa: " + reused);
+        }
         
-        System.out.println("Restricciones de recursos: simplificadas (validación post-solver)");
+        // Los hints deben respetar el orden impuesto a las tareas intercambiables
+        for (List<String> chain : symmetryChains) {
+            List<Long> values = new ArrayList<>();
+            for (String taskId : chain) {
+                if (hints.containsKey(taskId)) {
+                    values.add(hints.get(taskId));
+                }
+            }
+            if (values.size() == chain.size()) {
+                Collections.sort(values);
+                for (int i = 0; i < chain.size(); i++) {
+                    hints.put(chain.get(i), values.get(i));
+                }
+            }
+        }
+        
+        long hintedMakespan = 0;
+        for (Map.Entry<String, Long> entry : hints.entrySet()) {
+            Task task = graph.getTask(entry.getKey());
+            long start = entry.getValue();
+            // Las constantes no llevan hint: newConstant comparte la variable
+            // entre tareas con el mismo valor y un hint duplicado invalida el modelo
+            IntVar var = startTimes.get(task.getId());
+            if (var.getDomain().size() > 1) {
+                model.addHint(var, start);
+            }
+            hintedMakespan = Math.max(hintedMakespan, start + task.getDuration());
+        }
+        if (hints.size() == graph.size()) {
+            model.addHint(makespan, hintedMakespan);
+        }
+        resourceFlow.addAllocationHints(model, null);
     }
     
-    private List<String> extractPlan(PrecedenceGraph graph, CpSolver solver) {
-        System.out.println("\n=== Extrayendo Plan de Acciones ===");
+    private List<String> extractPlan(PrecedenceGraph graph, Map<String, Long> solvedStarts) {
+        log("\n=== Extrayendo Plan de Acciones ===");
         
         // Ordenar tareas por tiempo de inicio
         List<Task> sortedTasks = new ArrayList<>(graph.getAllTasks());
         sortedTasks.sort((a, b) -> Long.compare(
-            solver.value(startTimes.get(a.getId())),
-            solver.value(startTimes.get(b.getId()))
+            solvedStarts.get(a.getId()),
+            solvedStarts.get(b.getId())
         ));
         
         List<String> plan = new ArrayList<>();
         
-        System.out.println("\nSecuencia de tareas (ordenadas por tiempo):");
+        log("\nSecuencia de tareas (ordenadas por tiempo):");
         for (Task task : sortedTasks) {
-            long start = solver.value(startTimes.get(task.getId()));
-            long end = solver.value(endTimes.get(task.getId()));
+            long start = solvedStarts.get(task.getId());
+            long end = start + task.getDuration();
             
-            System.out.println(String.format("  [%3ds - %3ds] %s", 
+            log(String.format("  [%3ds - %3ds] %s", 
                                            start, end, task.getId()));
             
             String action = taskTypeToAction(task);
@@ -197,12 +673,29 @@ public class CPSATSolver {
             }
         }
         
-        System.out.println("\nAcciones totales en el plan: " + plan.size());
+        log("\nAcciones totales en el plan: " + plan.size());
         
         return plan;
     }
     
-    private String taskTypeToAction(Task task) {
+    /**
+     * Inicio de cada acción del plan, en el mismo orden que extractPlan
+     * (para reproducir el calendario en DiscreteEventSimulator.executeSchedule)
+     */
+    public static List<Long> planStartTimes(PrecedenceGraph graph, Map<String, Long> solvedStarts) {
+        List<Task> sortedTasks = new ArrayList<>(graph.getAllTasks());
+        sortedTasks.sort(Comparator.comparingLong(task -> solvedStarts.get(task.getId())));
+        
+        List<Long> starts = new ArrayList<>();
+        for (Task task : sortedTasks) {
+            if (taskTypeToAction(task) != null) {
+                starts.add(solvedStarts.get(task.getId()));
+            }
+        }
+        return starts;
+    }
+    
+    public static String taskTypeToAction(Task task) {
         return switch (task.getType()) {
             case CREATE_VILLAGER -> "CREATE_VILLAGER";
             case BUILD_HOUSE -> "BUILD_HOUSE";
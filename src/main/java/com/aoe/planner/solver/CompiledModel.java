@@ -0,0 +1,158 @@
+package com.aoe.planner.solver;
+
+import com.google.ortools.sat.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Modelo CP-SAT ya construido, listo para resolverse sin el grafo ni RCPSPModel.
+ *
+ * Contiene el CpModelProto y, por tarea, el índice de su variable de inicio,
+ * su duración y su acción; con eso se reconstruye el plan desde la respuesta.
+ * Formato binario (.cpmodel):
+ *   MAGIC, VERSION, nombre, índice del makespan, nº de tareas,
+ *   por tarea (id, índice, duración, acción o ""), longitud y bytes del proto
+ */
+public class CompiledModel {
+
+    public static final String EXTENSION = ".cpmodel";
+    public static final String RESPONSE_EXTENSION = ".response.pb";
+
+    private static final int MAGIC = 0x414F4543; // "AOEC"
+    private static final int VERSION = 1;
+
+    private final String name;
+    private final CpModelProto proto;
+    private final List<TaskEntry> tasks;
+    private final int makespanIndex;
+
+    public CompiledModel(String name, CpModelProto proto, List<TaskEntry> tasks, int makespanIndex) {
+        this.name = name;
+        this.proto = proto;
+        this.tasks = tasks;
+        this.makespanIndex = makespanIndex;
+    }
+
+    public void writeTo(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(name);
+            out.writeInt(makespanIndex);
+            out.writeInt(tasks.size());
+            for (TaskEntry task : tasks) {
+                out.writeUTF(task.getTaskId());
+                out.writeInt(task.getVariableIndex());
+                out.writeInt(task.getDuration());
+                out.writeUTF(task.getAction() == null ? "" : task.getAction());
+            }
+            byte[] bytes = proto.toByteArray();
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    public static CompiledModel readFrom(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("No es un modelo compilado: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de modelo compilado no soportada: " + version);
+            }
+            String name = in.readUTF();
+            int makespanIndex = in.readInt();
+            int count = in.readInt();
+            List<TaskEntry> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String taskId = in.readUTF();
+                int index = in.readInt();
+                int duration = in.readInt();
+                String action = in.readUTF();
+                tasks.add(new TaskEntry(taskId, index, duration, action.isEmpty() ? null : action));
+            }
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new CompiledModel(name, CpModelProto.parseFrom(bytes), tasks, makespanIndex);
+        }
+    }
+
+    /**
+     * Resuelve el proto directamente (sin construir el modelo) con 'profile'
+     */
+    public CpSolverResponse solve(SolverProfile profile) {
+        NativeLibraries.ensureLoaded();
+        SatParameters.Builder parameters = SatParameters.newBuilder();
+        profile.applyTo(parameters);
+        SolveWrapper wrapper = new SolveWrapper();
+        wrapper.setParameters(parameters.build());
+        return wrapper.solve(proto);
+    }
+
+    /**
+     * Inicios y plan de acciones a partir de una respuesta de este modelo
+     */
+    public SolverResult toResult(CpSolverResponse response) {
+        CpSolverStatus status = response.getStatus();
+        if (status != CpSolverStatus.OPTIMAL && status != CpSolverStatus.FEASIBLE) {
+            return SolverResult.noSolution(status, response.getWallTime());
+        }
+
+        List<TaskEntry> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.comparingLong(task -> response.getSolution(task.getVariableIndex())));
+
+        Map<String, Long> startTimes = new LinkedHashMap<>();
+        List<String> plan = new ArrayList<>();
+        for (TaskEntry task : sorted) {
+            startTimes.put(task.getTaskId(), response.getSolution(task.getVariableIndex()));
+            if (task.getAction() != null) {
+                plan.add(task.getAction());
+            }
+        }
+        return new SolverResult(status, response.getSolution(makespanIndex), response.getBestObjectiveBound(),
+                                response.getWallTime(), startTimes, plan);
+    }
+
+    public static void writeResponse(CpSolverResponse response, Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            response.writeTo(out);
+        }
+    }
+
+    public static CpSolverResponse readResponse(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return CpSolverResponse.parseFrom(in);
+        }
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public CpModelProto getProto() { return proto; }
+    public List<TaskEntry> getTasks() { return tasks; }
+    public int getMakespanIndex() { return makespanIndex; }
+
+    /**
+     * Entrada de la tabla id de tarea → variable de inicio
+     */
+    public static class TaskEntry {
+        private final String taskId;
+        private final int variableIndex;
+        private final int duration;
+        private final String action; // null si la tarea no produce acción
+
+        public TaskEntry(String taskId, int variableIndex, int duration, String action) {
+            this.taskId = taskId;
+            this.variableIndex = variableIndex;
+            this.duration = duration;
+            this.action = action;
+        }
+
+        public String getTaskId() { return taskId; }
+        public int getVariableIndex() { return variableIndex; }
+        public int getDuration() { return duration; }
+        public String getAction() { return action; }
+    }
+}
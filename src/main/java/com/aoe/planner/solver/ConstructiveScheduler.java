@@ -0,0 +1,250 @@
+package com.aoe.planner.solver;
+
+import com.aoe.planner.algorithm.CompactGraph;
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.algorithm.ReadyQueue;
+import com.aoe.planner.model.*;
+
+import java.util.*;
+
+/**
+ * Plan constructivo rápido usado como punto de partida (hints) para CP-SAT.
+ *
+ * En cada paso, entre las tareas listas (predecesores ya colocados), coloca
+ * la que puede empezar antes; los empates se deciden por el orden topológico.
+ * Las tareas listas se siguen con ReadyQueue (solo se tocan los sucesores
+ * de la tarea recién colocada).
+ * El inicio de una tarea es el primer instante que cumple:
+ * - Todas sus precedencias terminadas
+ * - El TC libre si la tarea lo requiere (no-overlap)
+ * - Recursos suficientes según ResourceFlowModel
+ * - Capacidad libre en cada recurso renovable durante toda la tarea
+ * Los inicios nunca decrecen, así colocar una tarea nunca deja sin
+ * recursos a otra ya colocada. Las tareas fijadas de fases anteriores
+ * se colocan primero y las libres empiezan después de la última de ellas.
+ *
+ * Como ninguna tarea colocada empieza después del candidato, el nivel de
+ * cada recurso es lineal entre dos fines de tareas colocadas y el uso
+ * renovable solo baja en esos fines: la espera salta de evento en evento
+ * en lugar de avanzar segundo a segundo.
+ */
+public class ConstructiveScheduler {
+
+    private final RCPSPModel rcpspModel;
+    private final ResourceFlowModel resourceFlow;
+    private boolean verbose = true;
+
+    public ConstructiveScheduler(RCPSPModel rcpspModel, ResourceFlowModel resourceFlow) {
+        this.rcpspModel = rcpspModel;
+        this.resourceFlow = resourceFlow;
+    }
+
+    /**
+     * Con verbose=false no se imprimen avisos (lo hereda del CPSATSolver que lo usa)
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    public Map<String, Long> build() {
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        CompactGraph compact = graph.compact();
+        ReadyQueue ready = new ReadyQueue(compact, ReadyQueue.byIndex());
+
+        Map<String, Long> startTimes = new LinkedHashMap<>();
+        long tcFreeAt = rcpspModel.getTownCenterRelease();
+        long lastStart = rcpspModel.getOrigin();
+
+        for (Map.Entry<String, Long> fixed : rcpspModel.getFixedStarts().entrySet()) {
+            Task task = graph.getTask(fixed.getKey());
+            startTimes.put(task.getId(), fixed.getValue());
+            ready.complete(compact.indexOf(task.getId()));
+            lastStart = Math.max(lastStart, fixed.getValue());
+            if (task.requiresTownCenter()) {
+                tcFreeAt = Math.max(tcFreeAt, fixed.getValue() + task.getDuration());
+            }
+        }
+
+        // La prioridad depende del estado (TC, recursos), así que se evalúa en cada paso
+        BitSet readyTasks = ready.readyTasks();
+        List<String> unaffordable = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            int bestIndex = -1;
+            long bestStart = Long.MAX_VALUE;
+
+            for (int i = readyTasks.nextSetBit(0); i >= 0; i = readyTasks.nextSetBit(i + 1)) {
+                long start = earliestStart(compact.task(i), startTimes, lastStart, tcFreeAt);
+                if (start < bestStart) {
+                    bestIndex = i;
+                    bestStart = start;
+                }
+            }
+
+            Task best = compact.task(bestIndex);
+            if (bestStart >= rcpspModel.getMaxTime()) {
+                unaffordable.add(best.getId());
+            }
+            startTimes.put(best.getId(), bestStart);
+            ready.complete(bestIndex);
+
+            if (best.requiresTownCenter()) {
+                tcFreeAt = bestStart + best.getDuration();
+            }
+            lastStart = bestStart;
+        }
+
+        if (!unaffordable.isEmpty()) {
+            log("⚠ Plan constructivo: sin inicio viable antes de maxTime="
+                + rcpspModel.getMaxTime() + " para " + unaffordable);
+        }
+        return startTimes;
+    }
+
+    private long earliestStart(Task task, Map<String, Long> startTimes, long lastStart, long tcFreeAt) {
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        int maxTime = rcpspModel.getMaxTime();
+        long start = Math.max(lastStart, rcpspModel.getReleaseTime(task.getId()));
+
+        for (String predId : task.getPredecessorIds()) {
+            start = Math.max(start, startTimes.get(predId) + graph.getTask(predId).getDuration());
+        }
+
+        if (task.requiresTownCenter()) {
+            start = Math.max(start, tcFreeAt);
+        }
+
+        // Esperar hasta poder pagar la tarea y tener capacidad renovable.
+        // La tarea se coloca de forma provisional en el propio mapa y se retira al final.
+        try {
+            while (start < maxTime) {
+                startTimes.put(task.getId(), start);
+                long next = nextPlacedEnd(task, start, startTimes);
+                long affordable = affordableFrom(task, start, next, startTimes);
+                if (affordable != start) {
+                    start = Math.min(affordable, maxTime);
+                } else if (fitsRenewables(task, start, startTimes)) {
+                    return start;
+                } else {
+                    start = Math.min(next, maxTime);
+                }
+            }
+            return maxTime;
+        } finally {
+            startTimes.remove(task.getId());
+        }
+    }
+
+    /**
+     * Primer fin de una tarea colocada posterior a 'time' (Long.MAX_VALUE si no hay).
+     * La llegada al oro tras el avance a Feudal también cambia la pendiente.
+     */
+    private long nextPlacedEnd(Task task, long time, Map<String, Long> startTimes) {
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        long next = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> placed : startTimes.entrySet()) {
+            if (placed.getKey().equals(task.getId())) {
+                continue;
+            }
+            Task other = graph.getTask(placed.getKey());
+            long end = placed.getValue() + other.getDuration();
+            if (end > time) {
+                next = Math.min(next, end);
+            }
+            long arrival = placed.getValue() + GameState.TRAVEL_TIME;
+            if (other.getType() == TaskType.ADVANCE_FEUDAL && arrival > time) {
+                next = Math.min(next, arrival);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Primer instante en [time, next] en que se puede pagar la tarea empezando
+     * en él, o 'next' si no llega a pagarse antes. En ese tramo cada nivel es
+     * lineal, así que la espera se calcula con la pendiente.
+     */
+    private long affordableFrom(Task task, long time, long next, Map<String, Long> startTimes) {
+        long earliest = time;
+        for (ResourceType resource : ResourceType.values()) {
+            if (ResourceFlowModel.amountOf(task.getCost(), resource) == 0) {
+                continue;
+            }
+            long level = resourceFlow.levelAt(resource, time, startTimes);
+            if (level >= 0) {
+                continue;
+            }
+            startTimes.put(task.getId(), time + 1);
+            long slope = resourceFlow.levelAt(resource, time + 1, startTimes) - level;
+            startTimes.put(task.getId(), time);
+            if (slope <= 0) {
+                return next;
+            }
+            long wait = (-level + slope - 1) / slope;
+            if (time + wait > next) {
+                return next;
+            }
+            earliest = Math.max(earliest, time + wait);
+        }
+        return earliest;
+    }
+
+    /**
+     * El uso de cada recurso solo cambia al empezar una tarea colocada, así que
+     * basta comprobar el inicio propio y los inicios que caen dentro de la tarea
+     */
+    private boolean fitsRenewables(Task task, long start, Map<String, Long> startTimes) {
+        if (task.getRenewableDemands().isEmpty() || task.getDuration() == 0) {
+            return true;
+        }
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        long end = start + task.getDuration();
+
+        List<Long> checkpoints = new ArrayList<>();
+        checkpoints.add(start);
+        for (Map.Entry<String, Long> placed : startTimes.entrySet()) {
+            if (placed.getKey().equals(task.getId())) {
+                continue;
+            }
+            if (placed.getValue() > start && placed.getValue() < end) {
+                checkpoints.add(placed.getValue());
+            }
+        }
+
+        for (RenewableResource resource : graph.getRenewableResources()) {
+            int demand = task.getRenewableDemand(resource.getId());
+            if (demand == 0) {
+                continue;
+            }
+            for (long time : checkpoints) {
+                int used = demand;
+                for (Map.Entry<String, Long> placed : startTimes.entrySet()) {
+                    if (placed.getKey().equals(task.getId())) {
+                        continue;
+                    }
+                    Task other = graph.getTask(placed.getKey());
+                    if (placed.getValue() <= time && time < placed.getValue() + other.getDuration()) {
+                        used += other.getRenewableDemand(resource.getId());
+                    }
+                }
+                if (used > resource.getCapacity()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public static long makespanOf(PrecedenceGraph graph, Map<String, Long> startTimes) {
+        long makespan = 0;
+        for (Map.Entry<String, Long> entry : startTimes.entrySet()) {
+            makespan = Math.max(makespan, entry.getValue() + graph.getTask(entry.getKey()).getDuration());
+        }
+        return makespan;
+    }
+}
@@ -0,0 +1,65 @@
+package com.aoe.planner.solver;
+
+import com.google.ortools.sat.*;
+
+import java.util.*;
+
+/**
+ * Adaptador entre CpSolverSolutionCallback y SolutionListener:
+ * publica solo los incumbentes que mejoran estrictamente el makespan.
+ * Con objetivo de fase la cota de CP-SAT es la de la suma ponderada, así que
+ * se publica sin cota (gap desconocido).
+ */
+public class IncumbentCallback extends CpSolverSolutionCallback {
+
+    private final SolutionListener listener;
+    private final IntVar makespan;
+    private final Map<String, IntVar> startTimes;
+    private final boolean makespanObjective;
+    private long bestMakespan;
+    private int solutionCount;
+    private boolean verbose = true;
+
+    public IncumbentCallback(SolutionListener listener, IntVar makespan, Map<String, IntVar> startTimes,
+                             boolean makespanObjective) {
+        this.listener = listener;
+        this.makespan = makespan;
+        this.startTimes = startTimes;
+        this.makespanObjective = makespanObjective;
+        this.bestMakespan = Long.MAX_VALUE;
+        this.solutionCount = 0;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    @Override
+    public void onSolutionCallback() {
+        long current = value(makespan);
+        if (current >= bestMakespan) {
+            return;
+        }
+        bestMakespan = current;
+        solutionCount++;
+
+        Map<String, Long> starts = new LinkedHashMap<>();
+        for (Map.Entry<String, IntVar> entry : startTimes.entrySet()) {
+            starts.put(entry.getKey(), value(entry.getValue()));
+        }
+
+        IncumbentSolution incumbent = new IncumbentSolution(
+            solutionCount, current, makespanObjective ? bestObjectiveBound() : Double.NaN, wallTime(), starts);
+
+        if (!listener.onSolution(incumbent)) {
+            if (verbose) {
+                System.out.println("Búsqueda detenida por el listener: " + incumbent);
+            }
+            stopSearch();
+        }
+    }
+
+    public int getSolutionCount() {
+        return solutionCount;
+    }
+}
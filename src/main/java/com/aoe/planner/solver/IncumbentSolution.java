@@ -0,0 +1,55 @@
+package com.aoe.planner.solver;
+
+import java.util.*;
+
+/**
+ * Solución intermedia (incumbente) publicada por CP-SAT durante la búsqueda.
+ */
+public class IncumbentSolution {
+    private final int index;
+    private final long makespan;
+    private final double objectiveBound; // NaN si el objetivo no es solo el makespan
+    private final double wallTime; // segundos desde el inicio de la búsqueda
+    private final Map<String, Long> startTimes;
+
+    public IncumbentSolution(int index, long makespan, double objectiveBound, double wallTime,
+                             Map<String, Long> startTimes) {
+        this.index = index;
+        this.makespan = makespan;
+        this.objectiveBound = objectiveBound;
+        this.wallTime = wallTime;
+        this.startTimes = startTimes;
+    }
+
+    /**
+     * Gap relativo entre el makespan y la mejor cota conocida (0 = óptimo probado);
+     * NaN si no hay cota del makespan
+     */
+    public double getGap() {
+        if (!hasBound()) {
+            return Double.NaN;
+        }
+        return (makespan - objectiveBound) / Math.max(1.0, Math.abs((double) makespan));
+    }
+
+    public boolean hasBound() {
+        return !Double.isNaN(objectiveBound);
+    }
+
+    // Getters
+    public int getIndex() { return index; }
+    public long getMakespan() { return makespan; }
+    public double getObjectiveBound() { return objectiveBound; }
+    public double getWallTime() { return wallTime; }
+    public Map<String, Long> getStartTimes() { return startTimes; }
+
+    @Override
+    public String toString() {
+        if (!hasBound()) {
+            return String.format("Incumbente #%d: makespan=%d, sin cota, t=%.3fs",
+                               index, makespan, wallTime);
+        }
+        return String.format("Incumbente #%d: makespan=%d, cota=%.0f, gap=%.2f%%, t=%.3fs",
+                           index, makespan, objectiveBound, getGap() * 100, wallTime);
+    }
+}
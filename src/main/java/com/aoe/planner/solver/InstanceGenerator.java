@@ -0,0 +1,212 @@
+package com.aoe.planner.solver;
+
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.model.*;
+
+import java.util.*;
+
+/**
+ * Generador de instancias sintéticas grandes con la misma estructura que
+ * RCPSPModel.buildModel(), para medir cómo escalan solver y simulador.
+ *
+ * - Aldeanos en tantas cadenas como Centros Urbanos (aldeano i tras aldeano i-k)
+ * - Casas repartidas a lo largo de la cadena de aldeanos
+ * - Edificios: la primera mitad en Oscura (molino, campamentos, cuartel),
+ *   la segunda tras el avance a Feudal (mercado, herrería, ...)
+ * - Tecnologías tras Feudal, con un edificio y un aldeano como requisito
+ * - Avances a Feudal y Castillos con los requisitos de buildModel
+ * - Precedencias extra entre tareas no-aldeano con probabilidad 'precedenceDensity'
+ *   (siempre hacia tareas generadas antes, así el grafo sigue siendo acíclico)
+ * Con un solo TC se usa requiresTownCenter (no-overlap); con varios, un recurso
+ * renovable "TC" de capacidad igual al número de centros.
+ * Misma semilla y parámetros → mismo grafo, ids incluidos.
+ * El plan resultante usa las acciones del simulador, aunque este solo modela un TC.
+ */
+public class InstanceGenerator {
+
+    public static final String TOWN_CENTER_RESOURCE = "TC";
+
+    private static final TaskType[] DARK_BUILDINGS = {
+        TaskType.BUILD_MILL, TaskType.BUILD_LUMBER_CAMP, TaskType.BUILD_MINING_CAMP, TaskType.BUILD_BARRACKS
+    };
+    private static final TaskType[] FEUDAL_BUILDINGS = {
+        TaskType.BUILD_MARKET, TaskType.BUILD_BLACKSMITH, TaskType.BUILD_BARRACKS
+    };
+
+    private final long seed;
+    private int villagers = 13;
+    private int townCenters = 1;
+    private int houses = 2;
+    private int buildings = 4;
+    private int technologies = 2;
+    private double precedenceDensity = 0.0;
+    private int maxTime = 0; // 0 = horizonte automático
+    private Resource initialResources = new Resource(200, 200, 100);
+    private int initialVillagers = 3;
+
+    public InstanceGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Copia con aldeanos, TCs, casas, edificios y tecnologías multiplicados por 'factor'
+     */
+    public InstanceGenerator scaled(int factor) {
+        InstanceGenerator copy = new InstanceGenerator(seed);
+        copy.villagers = villagers * factor;
+        copy.townCenters = townCenters * factor;
+        copy.houses = houses * factor;
+        copy.buildings = buildings * factor;
+        copy.technologies = technologies * factor;
+        copy.precedenceDensity = precedenceDensity;
+        copy.maxTime = maxTime;
+        copy.initialResources = initialResources.copy();
+        copy.initialVillagers = initialVillagers;
+        return copy;
+    }
+
+    public RCPSPModel generate() {
+        if (villagers < 1 || townCenters < 1 || buildings < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos 1 aldeano, 1 TC y 2 edificios");
+        }
+        Random random = new Random(seed);
+        PrecedenceGraph graph = new PrecedenceGraph();
+        List<Task> generated = new ArrayList<>(); // tareas no-aldeano en orden de generación
+        if (townCenters > 1) {
+            graph.addRenewableResource(new RenewableResource(TOWN_CENTER_RESOURCE, townCenters));
+        }
+
+        // 1. Cadenas de aldeanos
+        for (int i = 1; i <= villagers; i++) {
+            Task villager = townCenterTask("villager_" + i, TaskType.CREATE_VILLAGER, 25, new Resource(50, 0, 0));
+            if (i > townCenters) {
+                villager.addPredecessor(villagerId(i - townCenters));
+            }
+            graph.addTask(villager);
+        }
+
+        // 2. Casas repartidas a lo largo de la cadena
+        for (int i = 1; i <= houses; i++) {
+            Task house = new Task("house_" + i, TaskType.BUILD_HOUSE, 15, new Resource(0, 30, 0), false);
+            house.addPredecessor(villagerId(3 + (long) (villagers - 3) * (i - 1) / Math.max(1, houses)));
+            addWithExtraPredecessors(graph, house, generated, random);
+        }
+
+        // 3. Edificios de Oscura
+        int darkCount = (buildings + 1) / 2;
+        List<Task> darkBuildings = new ArrayList<>();
+        for (int i = 0; i < darkCount; i++) {
+            TaskType type = DARK_BUILDINGS[i % DARK_BUILDINGS.length];
+            Task building = building(type, i + 1);
+            building.addPredecessor(villagerId(1 + random.nextInt(Math.max(1, villagers / 2))));
+            addWithExtraPredecessors(graph, building, generated, random);
+            darkBuildings.add(building);
+        }
+
+        // 4. Avance a Feudal (dos edificios y ~77% de los aldeanos, como buildModel)
+        Task feudal = townCenterTask("advance_feudal", TaskType.ADVANCE_FEUDAL, 130, new Resource(500, 0, 0));
+        feudal.addPredecessor(darkBuildings.get(0).getId());
+        feudal.addPredecessor(darkBuildings.get(Math.min(1, darkBuildings.size() - 1)).getId());
+        feudal.addPredecessor(villagerId(Math.max(1, villagers * 10 / 13)));
+        addWithExtraPredecessors(graph, feudal, generated, random);
+
+        // 5. Edificios de Feudal
+        List<Task> feudalBuildings = new ArrayList<>();
+        for (int i = 0; i < buildings - darkCount; i++) {
+            TaskType type = FEUDAL_BUILDINGS[i % FEUDAL_BUILDINGS.length];
+            Task building = building(type, darkCount + i + 1);
+            building.addPredecessor(feudal.getId());
+            addWithExtraPredecessors(graph, building, generated, random);
+            feudalBuildings.add(building);
+        }
+
+        // 6. Tecnologías
+        List<Task> allBuildings = new ArrayList<>(darkBuildings);
+        allBuildings.addAll(feudalBuildings);
+        for (int i = 1; i <= technologies; i++) {
+            Resource cost = new Resource(50 + 25 * random.nextInt(5), 50 + 25 * random.nextInt(5),
+                                         25 * random.nextInt(5));
+            Task tech = new Task("tech_" + i, TaskType.RESEARCH_TECH, 30 + 5 * random.nextInt(7), cost, false);
+            tech.addPredecessor(feudal.getId());
+            tech.addPredecessor(allBuildings.get(random.nextInt(allBuildings.size())).getId());
+            tech.addPredecessor(villagerId(1 + random.nextInt(villagers)));
+            addWithExtraPredecessors(graph, tech, generated, random);
+        }
+
+        // 7. Avance a Castillos (dos edificios de Feudal y el último aldeano)
+        Task castle = townCenterTask("advance_castle", TaskType.ADVANCE_CASTLE, 160, new Resource(800, 0, 200));
+        List<Task> castleRequirements = feudalBuildings.isEmpty() ? darkBuildings : feudalBuildings;
+        castle.addPredecessor(castleRequirements.get(0).getId());
+        castle.addPredecessor(castleRequirements.get(Math.min(1, castleRequirements.size() - 1)).getId());
+        castle.addPredecessor(feudal.getId());
+        castle.addPredecessor(villagerId(villagers));
+        graph.addTask(castle);
+
+        return RCPSPModel.fromGraph(graph, maxTime > 0 ? maxTime : automaticHorizon(graph),
+                                    initialResources.copy(), initialVillagers);
+    }
+
+    /**
+     * Cota holgada: 1200 s más la suma de todas las duraciones
+     */
+    private static int automaticHorizon(PrecedenceGraph graph) {
+        int total = 1200;
+        for (Task task : graph.getAllTasks()) {
+            total += task.getDuration();
+        }
+        return total;
+    }
+
+    private Task townCenterTask(String id, TaskType type, int duration, Resource cost) {
+        if (townCenters == 1) {
+            return new Task(id, type, duration, cost, true);
+        }
+        Task task = new Task(id, type, duration, cost, false);
+        task.setRenewableDemand(TOWN_CENTER_RESOURCE, 1);
+        return task;
+    }
+
+    private static Task building(TaskType type, int index) {
+        String name = type.name().substring("BUILD_".length()).toLowerCase() + "_" + index;
+        return switch (type) {
+            case BUILD_BARRACKS -> new Task(name, type, 50, new Resource(0, 175, 0), false);
+            case BUILD_MARKET -> new Task(name, type, 60, new Resource(0, 100, 0), false);
+            case BUILD_BLACKSMITH -> new Task(name, type, 50, new Resource(0, 150, 0), false);
+            default -> new Task(name, type, 35, new Resource(0, 100, 0), false);
+        };
+    }
+
+    private void addWithExtraPredecessors(PrecedenceGraph graph, Task task, List<Task> generated, Random random) {
+        if (precedenceDensity > 0) {
+            for (Task earlier : generated) {
+                if (random.nextDouble() < precedenceDensity) {
+                    task.addPredecessor(earlier.getId());
+                }
+            }
+        }
+        graph.addTask(task);
+        generated.add(task);
+    }
+
+    private String villagerId(long n) {
+        return "villager_" + Math.max(1, Math.min(n, villagers));
+    }
+
+    // Setters de parámetros
+    public void setVillagers(int villagers) { this.villagers = villagers; }
+    public void setTownCenters(int townCenters) { this.townCenters = townCenters; }
+    public void setHouses(int houses) { this.houses = houses; }
+    public void setBuildings(int buildings) { this.buildings = buildings; }
+    public void setTechnologies(int technologies) { this.technologies = technologies; }
+    public void setPrecedenceDensity(double precedenceDensity) { this.precedenceDensity = precedenceDensity; }
+    public void setMaxTime(int maxTime) { this.maxTime = maxTime; }
+    public void setInitialResources(Resource initialResources) { this.initialResources = initialResources; }
+    public void setInitialVillagers(int initialVillagers) { this.initialVillagers = initialVillagers; }
+
+    @Override
+    public String toString() {
+        return String.format("InstanceGenerator{seed=%d, villagers=%d, tc=%d, houses=%d, buildings=%d, "
+                           + "techs=%d, density=%.3f}", seed, villagers, townCenters, houses, buildings,
+                           technologies, precedenceDensity);
+    }
+}
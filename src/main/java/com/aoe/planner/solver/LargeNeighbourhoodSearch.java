@@ -0,0 +1,240 @@
+package com.aoe.planner.solver;
+
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.model.AllocationPlan;
+import com.aoe.planner.model.GameState;
+import com.aoe.planner.model.Task;
+import com.aoe.planner.simulation.DiscreteEventSimulator;
+import com.google.ortools.sat.CpSolverStatus;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Búsqueda de vecindario amplio (LNS) guiada por el simulador.
+ *
+ * Partiendo del mejor plan conocido, cada iteración libera un vecindario y
+ * fija el resto de tareas en su inicio actual:
+ * - Franja de tiempo: las tareas que empiezan en una ventana aleatoria
+ * - Fase: las tareas de una edad (ver PhaseDecompositionSolver)
+ * - TC: toda la secuencia del Centro Urbano
+ * El submodelo se resuelve con CP-SAT (1 worker, límite corto, semilla distinta);
+ * a igual makespan, pesos aleatorios en los inicios libres cambian el orden
+ * resultante, que es lo único que el simulador ve. El candidato se puntúa con DiscreteEventSimulator, que es la referencia real:
+ * solo se acepta si el simulador lo mejora.
+ *
+ * Cada hilo ejecuta su propia secuencia de vecindarios sobre un incumbente compartido.
+ */
+public class LargeNeighbourhoodSearch {
+
+    public enum Neighbourhood { TIME_SLICE, PHASE, TOWN_CENTER }
+
+    private static final long NOT_REACHED_PENALTY = 100_000;
+
+    private final RCPSPModel rcpspModel;
+    private final SolverProfile neighbourhoodProfile;
+    private final int threads;
+    private final List<Set<String>> phases;
+
+    // Incumbente compartido entre hilos
+    private Map<String, Long> bestStarts;
+    private long bestScore;
+    private AllocationPlan allocation;
+
+    private int iterations;
+    private int improvements;
+    private final Set<List<String>> evaluatedPlans;
+
+    /**
+     * @param neighbourhoodProfile perfil de cada subproblema (se fuerza 1 worker y sin log)
+     * @param threads hilos en paralelo, 0 = todos los núcleos
+     */
+    public LargeNeighbourhoodSearch(RCPSPModel rcpspModel, SolverProfile neighbourhoodProfile, int threads) {
+        this.rcpspModel = rcpspModel;
+        this.neighbourhoodProfile = neighbourhoodProfile.copy();
+        this.neighbourhoodProfile.setWorkers(1);
+        this.neighbourhoodProfile.setLogSearchProgress(false);
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.phases = PhaseDecompositionSolver.phaseTaskIds(rcpspModel.getGraph());
+        this.evaluatedPlans = new HashSet<>();
+    }
+
+    /**
+     * Mejora 'initial' durante 'budgetSeconds' segundos de reloj
+     */
+    public SolverResult improve(SolverResult initial, double budgetSeconds) {
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        long start = System.nanoTime();
+        long deadline = start + (long) (budgetSeconds * 1e9);
+
+        allocation = initial.getAllocation();
+        bestStarts = new LinkedHashMap<>(initial.getStartTimes());
+        bestScore = simulate(PhaseDecompositionSolver.planOf(graph, bestStarts));
+        long initialScore = bestScore;
+        evaluatedPlans.add(PhaseDecompositionSolver.planOf(graph, bestStarts));
+
+        System.out.println("=== LNS guiado por simulación ===");
+        System.out.println("Hilos: " + threads + " | Subproblema: " + neighbourhoodProfile
+                         + " | Inicial simulado: " + describe(initialScore));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int seed = neighbourhoodProfile.getRandomSeed() + i;
+            workers.add(pool.submit(() -> searchLoop(new Random(seed), deadline)));
+        }
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("⚠ Hilo del LNS abortado: " + e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        Map<String, Long> starts;
+        long score;
+        synchronized (this) {
+            starts = PhaseDecompositionSolver.sortByStart(bestStarts);
+            score = bestScore;
+        }
+        System.out.println(String.format("LNS: %d iteraciones, %d planes simulados, %d mejoras, simulado %s → %s (%.2fs)",
+                                         iterations, evaluatedPlans.size(), improvements, describe(initialScore), describe(score), elapsed));
+
+        SolverResult result = new SolverResult(CpSolverStatus.FEASIBLE,
+                                               ConstructiveScheduler.makespanOf(graph, starts), -1,
+                                               initial.getWallTime() + elapsed, starts,
+                                               PhaseDecompositionSolver.planOf(graph, starts));
+        result.getObjectives().put("makespan", result.getMakespan());
+        result.getObjectives().put("simulado", score);
+        result.setAllocation(allocation);
+        return result;
+    }
+
+    private void searchLoop(Random random, long deadline) {
+        Neighbourhood[] kinds = Neighbourhood.values();
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            Map<String, Long> incumbent;
+            synchronized (this) {
+                incumbent = new HashMap<>(bestStarts);
+                iterations++;
+            }
+
+            Neighbourhood kind = kinds[random.nextInt(kinds.length)];
+            Set<String> free = selectNeighbourhood(kind, incumbent, random);
+            if (free.isEmpty()) {
+                continue;
+            }
+
+            Map<String, Long> candidate = solveNeighbourhood(free, incumbent, random, deadline);
+            if (candidate == null) {
+                continue;
+            }
+
+            List<String> plan = PhaseDecompositionSolver.planOf(rcpspModel.getGraph(), candidate);
+            synchronized (this) {
+                if (!evaluatedPlans.add(plan)) {
+                    continue; // mismo orden de acciones: misma simulación
+                }
+            }
+            long score = simulate(plan);
+
+            synchronized (this) {
+                if (score < bestScore) {
+                    System.out.println("  ✓ " + kind + " (" + free.size() + " tareas): "
+                                     + describe(bestScore) + " → " + describe(score));
+                    bestScore = score;
+                    bestStarts = candidate;
+                    improvements++;
+                }
+            }
+        }
+    }
+
+    private Set<String> selectNeighbourhood(Neighbourhood kind, Map<String, Long> starts, Random random) {
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        Set<String> free = new HashSet<>();
+        switch (kind) {
+            case TIME_SLICE -> {
+                long makespan = ConstructiveScheduler.makespanOf(graph, starts);
+                long width = Math.max(1, makespan / 4);
+                long from = random.nextLong(Math.max(1, makespan - width / 2));
+                for (Map.Entry<String, Long> entry : starts.entrySet()) {
+                    if (entry.getValue() >= from && entry.getValue() < from + width) {
+                        free.add(entry.getKey());
+                    }
+                }
+            }
+            case PHASE -> free.addAll(phases.get(random.nextInt(phases.size())));
+            case TOWN_CENTER -> {
+                for (Task task : graph.getTasksRequiringTC()) {
+                    free.add(task.getId());
+                }
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Submodelo con 'free' libre y el resto fijado en 'incumbent'; null si no hay solución
+     */
+    private Map<String, Long> solveNeighbourhood(Set<String> free, Map<String, Long> incumbent,
+                                                 Random random, long deadline) {
+        Map<String, Long> fixed = new HashMap<>();
+        for (Map.Entry<String, Long> entry : incumbent.entrySet()) {
+            if (!free.contains(entry.getKey())) {
+                fixed.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        SolverProfile profile = neighbourhoodProfile.copy();
+        profile.setRandomSeed(random.nextInt(Integer.MAX_VALUE));
+        double remaining = (deadline - System.nanoTime()) / 1e9;
+        if (remaining <= 0) {
+            return null;
+        }
+        profile.setMaxTimeInSeconds(Math.min(profile.getMaxTimeInSeconds(), remaining));
+
+        CPSATSolver solver = new CPSATSolver(RCPSPModel.phase(rcpspModel, free, fixed, null));
+        solver.setProfile(profile);
+        solver.setVerbose(false);
+        solver.setWarmStart(random.nextBoolean());
+        solver.setPreviousSolution(incumbent);
+        Map<String, Long> weights = new HashMap<>();
+        for (String taskId : free) {
+            weights.put(taskId, 1L + random.nextInt(8));
+        }
+        solver.setStartWeights(weights);
+        SolverResult result = solver.solveSchedule();
+        return result.hasSolution() ? new HashMap<>(result.getStartTimes()) : null;
+    }
+
+    /**
+     * Tiempo simulado hasta completar el plan; penalizado si no llega a Castillos
+     */
+    private long simulate(List<String> plan) {
+        GameState state = new GameState();
+        state.setAllocationPlan(allocation);
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(state);
+        simulator.setVerbose(false);
+        simulator.executePlan(plan);
+        long time = simulator.getState().getCurrentTime();
+        return simulator.getState().hasReachedCastleAge() ? time : NOT_REACHED_PENALTY + time;
+    }
+
+    private static String describe(long score) {
+        return score >= NOT_REACHED_PENALTY ? "sin Castillos (" + (score - NOT_REACHED_PENALTY) + "s)" : score + "s";
+    }
+
+    public synchronized int getIterations() {
+        return iterations;
+    }
+
+    public synchronized int getImprovements() {
+        return improvements;
+    }
+}
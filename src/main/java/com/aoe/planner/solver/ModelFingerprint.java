@@ -0,0 +1,95 @@
+package com.aoe.planner.solver;
+
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.model.RenewableResource;
+import com.aoe.planner.model.Resource;
+import com.aoe.planner.model.ResourceType;
+import com.aoe.planner.model.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Huella canónica (SHA-256) de un RCPSPModel.
+ *
+ * Cubre todo lo que cambia la solución: id, tipo, duración, coste,
+ * predecesores y uso del TC de cada tarea, además de maxTime, recursos
+ * y aldeanos iniciales; en un modelo residual también el origen, los
+ * recolectores, la liberación del TC y la cota de inicio de cada tarea.
+ * Las tareas y predecesores se ordenan por id,
+ * así dos modelos iguales dan la misma huella sin importar el orden de inserción.
+ */
+public final class ModelFingerprint {
+
+    private ModelFingerprint() {
+    }
+
+    public static String of(RCPSPModel rcpspModel) {
+        return sha256(canonicalForm(rcpspModel));
+    }
+
+    static String canonicalForm(RCPSPModel rcpspModel) {
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        StringBuilder form = new StringBuilder();
+
+        Resource initial = rcpspModel.getInitialResources();
+        form.append("maxTime=").append(rcpspModel.getMaxTime())
+            .append(";initial=").append(initial.getFood()).append('/')
+            .append(initial.getWood()).append('/').append(initial.getGold())
+            .append(";villagers=").append(rcpspModel.getInitialVillagers()).append('\n');
+
+        if (rcpspModel.getMilestoneId() != null) {
+            form.append("milestone=").append(rcpspModel.getMilestoneId()).append('\n');
+        }
+
+        // Un modelo residual nunca comparte huella con el completo
+        if (rcpspModel.isResidual()) {
+            form.append("origin=").append(rcpspModel.getOrigin())
+                .append(";gatherers=").append(rcpspModel.getInitialGatherers(ResourceType.FOOD)).append('/')
+                .append(rcpspModel.getInitialGatherers(ResourceType.WOOD)).append('/')
+                .append(rcpspModel.getInitialGatherers(ResourceType.GOLD))
+                .append(";tc=").append(rcpspModel.getTownCenterRelease()).append('\n');
+        }
+
+        for (RenewableResource resource : graph.getRenewableResources()) {
+            form.append("renewable=").append(resource.getId())
+                .append(':').append(resource.getCapacity()).append('\n');
+        }
+
+        List<Task> tasks = new ArrayList<>(graph.getAllTasks());
+        tasks.sort(Comparator.comparing(Task::getId));
+        for (Task task : tasks) {
+            Resource cost = task.getCost();
+            form.append(task.getId())
+                .append('|').append(task.getType())
+                .append('|').append(task.getDuration())
+                .append('|').append(cost.getFood()).append('/')
+                .append(cost.getWood()).append('/').append(cost.getGold())
+                .append('|').append(task.requiresTownCenter() ? "TC" : "-")
+                .append('|').append(String.join(",", new TreeSet<>(task.getPredecessorIds())));
+            if (!task.getRenewableDemands().isEmpty()) {
+                form.append('|').append(task.getRenewableDemands());
+            }
+            if (rcpspModel.isResidual()) {
+                form.append('|').append(rcpspModel.getReleaseTime(task.getId()));
+            }
+            if (rcpspModel.isFixed(task.getId())) {
+                form.append("|@").append(rcpspModel.getFixedStarts().get(task.getId()));
+            }
+            form.append('\n');
+        }
+        return form.toString();
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
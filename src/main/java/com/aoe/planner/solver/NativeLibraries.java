@@ -0,0 +1,30 @@
+package com.aoe.planner.solver;
+
+import com.google.ortools.Loader;
+
+/**
+ * Carga única de las bibliotecas nativas de OR-Tools por proceso.
+ * En modo servicio se llama al arrancar, así ninguna petición paga el coste JNI.
+ */
+public final class NativeLibraries {
+
+    private static volatile boolean loaded = false;
+
+    private NativeLibraries() {
+    }
+
+    public static void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (NativeLibraries.class) {
+            if (!loaded) {
+                long start = System.nanoTime();
+                Loader.loadNativeLibraries();
+                loaded = true;
+                System.out.println(String.format("OR-Tools nativo cargado en %.0f ms",
+                                               (System.nanoTime() - start) / 1e6));
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.aoe.planner.solver;
+
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.model.Task;
+import com.aoe.planner.model.TaskType;
+import com.google.ortools.sat.CpSolverStatus;
+
+import java.util.*;
+
+/**
+ * Descomposición por edades para grafos grandes.
+ *
+ * El grafo se corta en los hitos advance_feudal y advance_castle; cada tarea
+ * va a la fase del primer hito que la necesita:
+ * - Oscura: advance_feudal y sus ancestros
+ * - Feudal: advance_castle y sus ancestros restantes
+ * - Castillos: el resto (sin hito, se minimiza el makespan)
+ * Las tareas que ningún hito necesita no frenan las fases tempranas.
+ * Cada fase se resuelve como submodelo con las fases anteriores fijadas, minimizando
+ * primero el fin de su hito. Opcionalmente, una pasada final sobre el modelo
+ * completo refina el plan encadenado usándolo como hints.
+ */
+public class PhaseDecompositionSolver {
+
+    private final RCPSPModel rcpspModel;
+    private final SolverProfile phaseProfile;
+    private final SolverProfile refineProfile;
+    private final List<String> phaseSummaries;
+
+    /**
+     * @param refineProfile perfil de la pasada de refinamiento, o null para omitirla
+     */
+    public PhaseDecompositionSolver(RCPSPModel rcpspModel, SolverProfile phaseProfile,
+                                    SolverProfile refineProfile) {
+        this.rcpspModel = rcpspModel;
+        this.phaseProfile = phaseProfile;
+        this.refineProfile = refineProfile;
+        this.phaseSummaries = new ArrayList<>();
+    }
+
+    public SolverResult solve() {
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        long start = System.nanoTime();
+
+        Map<String, Long> fixed = new LinkedHashMap<>();
+        for (Phase phase : splitPhases(graph)) {
+            if (phase.taskIds.isEmpty()) {
+                continue;
+            }
+
+            RCPSPModel subModel = RCPSPModel.phase(rcpspModel, phase.taskIds, fixed, phase.milestoneId);
+            CPSATSolver solver = quietSolver(subModel, phaseProfile);
+            SolverResult result = solver.solveSchedule();
+
+            if (!result.hasSolution()) {
+                System.out.println("✗ Fase " + phase.name + " sin solución (" + result.getStatus() + ")");
+                return SolverResult.noSolution(result.getStatus(), (System.nanoTime() - start) / 1e9);
+            }
+
+            fixed.putAll(result.getStartTimes());
+            String summary = String.format("Fase %s: %d tareas, %s, fin de fase %ds (%.2fs)",
+                                           phase.name, phase.taskIds.size(), result.getStatus(),
+                                           ConstructiveScheduler.makespanOf(graph, fixed),
+                                           result.getWallTime());
+            phaseSummaries.add(summary);
+            System.out.println("  " + summary);
+        }
+
+        long chainedMakespan = ConstructiveScheduler.makespanOf(graph, fixed);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        if (refineProfile != null) {
+            CPSATSolver refiner = quietSolver(rcpspModel, refineProfile);
+            refiner.setPreviousSolution(fixed);
+            SolverResult refined = refiner.solveSchedule();
+            System.out.println(String.format("  Refinamiento: %d → %d (%s)",
+                                             chainedMakespan, refined.getMakespan(), refined.getStatus()));
+            if (refined.hasSolution() && refined.getMakespan() <= chainedMakespan) {
+                return refined;
+            }
+        }
+
+        return new SolverResult(CpSolverStatus.FEASIBLE, chainedMakespan, -1, elapsed,
+                                sortByStart(fixed), planOf(graph, fixed));
+    }
+
+    private static CPSATSolver quietSolver(RCPSPModel model, SolverProfile profile) {
+        SolverProfile copy = profile.copy();
+        copy.setLogSearchProgress(false);
+        CPSATSolver solver = new CPSATSolver(model);
+        solver.setProfile(copy);
+        solver.setVerbose(false);
+        solver.setWarmStart(true);
+        return solver;
+    }
+
+    /**
+     * Tareas de cada fase (Oscura, Feudal, Castillos), también usado como vecindario del LNS
+     */
+    static List<Set<String>> phaseTaskIds(PrecedenceGraph graph) {
+        List<Set<String>> phases = new ArrayList<>();
+        for (Phase phase : splitPhases(graph)) {
+            phases.add(phase.taskIds);
+        }
+        return phases;
+    }
+
+    /**
+     * Fases en orden; cada tarea cae en la fase del primer hito que la necesita
+     */
+    private static List<Phase> splitPhases(PrecedenceGraph graph) {
+        String feudalId = findTaskId(graph, TaskType.ADVANCE_FEUDAL);
+        String castleId = findTaskId(graph, TaskType.ADVANCE_CASTLE);
+        Map<String, Set<String>> ancestors = graph.getTransitivePredecessors();
+
+        Phase dark = new Phase("Oscura", feudalId);
+        Phase feudal = new Phase("Feudal", castleId);
+        Phase castle = new Phase("Castillos", null);
+
+        Set<String> neededByFeudal = closure(feudalId, ancestors);
+        Set<String> neededByCastle = closure(castleId, ancestors);
+        for (Task task : graph.getAllTasks()) {
+            if (neededByFeudal.contains(task.getId())) {
+                dark.taskIds.add(task.getId());
+            } else if (neededByCastle.contains(task.getId())) {
+                feudal.taskIds.add(task.getId());
+            } else {
+                castle.taskIds.add(task.getId());
+            }
+        }
+        return List.of(dark, feudal, castle);
+    }
+
+    private static Set<String> closure(String milestoneId, Map<String, Set<String>> ancestors) {
+        Set<String> closure = new HashSet<>();
+        if (milestoneId != null) {
+            closure.add(milestoneId);
+            closure.addAll(ancestors.get(milestoneId));
+        }
+        return closure;
+    }
+
+    private static String findTaskId(PrecedenceGraph graph, TaskType type) {
+        for (Task task : graph.getAllTasks()) {
+            if (task.getType() == type) {
+                return task.getId();
+            }
+        }
+        return null;
+    }
+
+    static Map<String, Long> sortByStart(Map<String, Long> starts) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(starts.entrySet());
+        entries.sort(Map.Entry.comparingByValue());
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            sorted.put(entry.getKey(), entry.getValue());
+        }
+        return sorted;
+    }
+
+    static List<String> planOf(PrecedenceGraph graph, Map<String, Long> starts) {
+        List<String> plan = new ArrayList<>();
+        for (String taskId : sortByStart(starts).keySet()) {
+            String action = CPSATSolver.taskTypeToAction(graph.getTask(taskId));
+            if (action != null) {
+                plan.add(action);
+            }
+        }
+        return plan;
+    }
+
+    public List<String> getPhaseSummaries() {
+        return phaseSummaries;
+    }
+
+    private static class Phase {
+        private final String name;
+        private final Set<String> taskIds;
+        private final String milestoneId;
+
+        private Phase(String name, String milestoneId) {
+            this.name = name;
+            this.taskIds = new LinkedHashSet<>();
+            this.milestoneId = milestoneId;
+        }
+    }
+}
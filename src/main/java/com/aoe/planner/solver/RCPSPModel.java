@@ -3,18 +3,145 @@ package com.aoe.planner.solver;
 import com.aoe.planner.algorithm.PrecedenceGraph;
 import com.aoe.planner.model.*;
 
+import java.util.*;
+
 public class RCPSPModel {
 
     private PrecedenceGraph graph;
     private int maxTime;
     private Resource initialResources;
     private int initialVillagers;
+    private int villagerCount;
+    private int houseCount;
+
+    // Modelo residual (re-planificación): origen de tiempo, recolectores
+    // ya trabajando, liberación del TC y cotas de inicio por tarea
+    private int origin;
+    private Map<ResourceType, Integer> initialGatherers;
+    private int townCenterRelease;
+    private Map<String, Integer> releaseTimes;
+
+    // Submodelo de fase: tareas fijadas de fases anteriores y hito a minimizar
+    private Map<String, Long> fixedStarts;
+    private String milestoneId;
 
     public RCPSPModel(int maxTime) {
+        this(maxTime, 13, 2, new Resource(200, 200, 100), 3); // recursos y aldeanos iniciales estándar
+    }
+
+    public RCPSPModel(int maxTime, int villagerCount, int houseCount,
+                      Resource initialResources, int initialVillagers) {
+        if (villagerCount < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un aldeano en la cadena");
+        }
         this.graph = new PrecedenceGraph();
         this.maxTime = maxTime;
-        this.initialResources = new Resource(200, 200, 100); // recursos iniciales estándar
-        this.initialVillagers = 3;                           // 3 aldeanos iniciales
+        this.villagerCount = villagerCount;
+        this.houseCount = houseCount;
+        this.initialResources = initialResources;
+        this.initialVillagers = initialVillagers;
+        this.origin = 0;
+        this.initialGatherers = new EnumMap<>(ResourceType.class);
+        this.initialGatherers.put(ResourceType.FOOD, initialVillagers);
+        this.townCenterRelease = 0;
+        this.releaseTimes = new HashMap<>();
+        this.fixedStarts = new HashMap<>();
+        this.milestoneId = null;
+    }
+
+    /**
+     * Modelo sobre un grafo ya construido (p. ej. una instancia PSPLIB):
+     * sin recursos económicos ni aldeanos, solo precedencias, TC y recursos renovables
+     */
+    public static RCPSPModel fromGraph(PrecedenceGraph graph, int maxTime) {
+        return fromGraph(graph, maxTime, new Resource(0, 0, 0), 0);
+    }
+
+    /**
+     * Modelo sobre un grafo ya construido con economía inicial (p. ej. InstanceGenerator)
+     */
+    public static RCPSPModel fromGraph(PrecedenceGraph graph, int maxTime,
+                                       Resource initialResources, int initialVillagers) {
+        RCPSPModel model = new RCPSPModel(maxTime, 1, 0, initialResources, initialVillagers);
+        model.graph = graph;
+        return model;
+    }
+
+    /**
+     * Submodelo de una fase: las tareas de 'phaseTaskIds' quedan libres y las
+     * de fases anteriores (fixedStarts) entran como constantes, así el flujo
+     * de recursos se sigue contando desde t=0. El objetivo prioriza el fin de 'milestoneId'.
+     */
+    public static RCPSPModel phase(RCPSPModel full, Set<String> phaseTaskIds,
+                                   Map<String, Long> fixedStarts, String milestoneId) {
+        RCPSPModel phase = new RCPSPModel(full.maxTime, full.villagerCount, full.houseCount,
+                                          full.initialResources, full.initialVillagers);
+        full.graph.getRenewableResources().forEach(phase.graph::addRenewableResource);
+        for (Task task : full.graph.getAllTasks()) {
+            String id = task.getId();
+            if (!phaseTaskIds.contains(id) && !fixedStarts.containsKey(id)) {
+                continue;
+            }
+            Task copy = copyWithoutPredecessors(task);
+            for (String predId : task.getPredecessorIds()) {
+                copy.addPredecessor(predId);
+            }
+            phase.graph.addTask(copy);
+        }
+        phase.fixedStarts.putAll(fixedStarts);
+        phase.milestoneId = milestoneId;
+        return phase;
+    }
+
+    /**
+     * Modelo residual a partir de un estado de juego en curso:
+     * - Las tareas ya iniciadas salen del grafo; sus sucesores heredan como
+     *   cota de inicio el fin previsto en 'previousStarts' (o el instante actual)
+     * - Recursos y recolectores son los del estado, con origen en su tiempo actual
+     * - Las tareas del TC no empiezan antes de que el TC quede libre
+     */
+    public static RCPSPModel residual(RCPSPModel full, GameState state,
+                                      Set<String> startedTaskIds, Map<String, Long> previousStarts) {
+        int now = state.getCurrentTime();
+        RCPSPModel residual = new RCPSPModel(full.maxTime, full.villagerCount, full.houseCount,
+                                             state.getResources().copy(), full.initialVillagers);
+        residual.origin = now;
+        residual.initialGatherers.put(ResourceType.FOOD, state.getVillagersOnFood());
+        residual.initialGatherers.put(ResourceType.WOOD, state.getVillagersOnWood());
+        residual.initialGatherers.put(ResourceType.GOLD, state.getVillagersOnGold());
+        residual.townCenterRelease = Math.max(now, state.getTownCenterBusyUntil());
+        full.graph.getRenewableResources().forEach(residual.graph::addRenewableResource);
+
+        for (Task task : full.graph.getAllTasks()) {
+            if (startedTaskIds.contains(task.getId())) {
+                continue;
+            }
+
+            Task copy = copyWithoutPredecessors(task);
+            int release = now;
+            for (String predId : task.getPredecessorIds()) {
+                if (startedTaskIds.contains(predId)) {
+                    Long predStart = previousStarts.get(predId);
+                    if (predStart != null) {
+                        int predEnd = (int) (predStart + full.graph.getTask(predId).getDuration());
+                        release = Math.max(release, predEnd);
+                    }
+                } else {
+                    copy.addPredecessor(predId);
+                }
+            }
+
+            residual.graph.addTask(copy);
+            residual.releaseTimes.put(task.getId(), release);
+        }
+        return residual;
+    }
+
+    private static Task copyWithoutPredecessors(Task task) {
+        Task copy = new Task(task.getId(), task.getType(), task.getDuration(),
+                             task.getCost(), task.requiresTownCenter());
+        task.getRenewableDemands().forEach(copy::setRenewableDemand);
+        return copy;
     }
 
     /**
@@ -27,11 +154,11 @@ public class RCPSPModel {
      * - Avance a Castillos
      */
     public void buildModel() {
-        // 1. Crear aldeanos 1–25 encadenados (TC exclusivo)
-        createVillagerChain(13);
+        // 1. Crear aldeanos encadenados (TC exclusivo)
+        createVillagerChain(villagerCount);
 
-        // 2. Construir 2 casas
-        createHouses(2);
+        // 2. Construir casas
+        createHouses(houseCount);
 
         // 3. Construir Molino y Lumber Camp
         createDarkAgeEcoBuildings();
@@ -82,12 +209,8 @@ public class RCPSPModel {
                     false
             );
 
-            // Casa 1 después del aldeano 3, casa 2 después del aldeano 8
-            if (i == 1) {
-                house.addPredecessor("villager_3");
-            } else if (i == 2) {
-                house.addPredecessor("villager_8");
-            }
+            // Casa 1 después del aldeano 3, casa 2 después del aldeano 8, luego cada 5
+            house.addPredecessor(villagerId(3 + 5 * (i - 1)));
 
             graph.addTask(house);
         }
@@ -105,7 +228,7 @@ public class RCPSPModel {
                 false
         );
         // Construible después del aldeano 6
-        mill.addPredecessor("villager_6");
+        mill.addPredecessor(villagerId(6));
         graph.addTask(mill);
 
         Task lumberCamp = new Task(
@@ -115,7 +238,7 @@ public class RCPSPModel {
                 new Resource(0, 100, 0),
                 false
         );
-        lumberCamp.addPredecessor("villager_6");
+        lumberCamp.addPredecessor(villagerId(6));
         graph.addTask(lumberCamp);
     }
 
@@ -135,7 +258,7 @@ public class RCPSPModel {
 
         feudal.addPredecessor("mill");
         feudal.addPredecessor("lumber_camp");
-        feudal.addPredecessor("villager_10"); // mínimo 10 aldeanos antes de subir
+        feudal.addPredecessor(villagerId(10)); // mínimo 10 aldeanos antes de subir
 
         graph.addTask(feudal);
         return feudal;
@@ -215,11 +338,18 @@ public class RCPSPModel {
 
         castle.addPredecessor("market");
         castle.addPredecessor("blacksmith");
-        castle.addPredecessor("villager_13");
+        castle.addPredecessor(villagerId(villagerCount));
 
         graph.addTask(castle);
     }
 
+    /**
+     * Id del aldeano n-ésimo, acotado al largo de la cadena
+     */
+    private String villagerId(int n) {
+        return "villager_" + Math.min(n, villagerCount);
+    }
+
     // Getters básicos usados por CPSATSolver
 
     public PrecedenceGraph getGraph() {
@@ -237,4 +367,56 @@ public class RCPSPModel {
     public int getInitialVillagers() {
         return initialVillagers;
     }
+
+    public int getVillagerCount() {
+        return villagerCount;
+    }
+
+    public int getHouseCount() {
+        return houseCount;
+    }
+
+    public boolean isResidual() {
+        return origin > 0 || !releaseTimes.isEmpty();
+    }
+
+    /**
+     * Instante desde el que cuentan los recursos iniciales (0 en el modelo completo)
+     */
+    public int getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Aldeanos que ya recolectan 'resource' en el origen
+     */
+    public int getInitialGatherers(ResourceType resource) {
+        return initialGatherers.getOrDefault(resource, 0);
+    }
+
+    public int getTownCenterRelease() {
+        return townCenterRelease;
+    }
+
+    public int getReleaseTime(String taskId) {
+        return releaseTimes.getOrDefault(taskId, origin);
+    }
+
+    /**
+     * Inicios ya decididos (fases anteriores); vacío en el modelo completo
+     */
+    public Map<String, Long> getFixedStarts() {
+        return fixedStarts;
+    }
+
+    public boolean isFixed(String taskId) {
+        return fixedStarts.containsKey(taskId);
+    }
+
+    /**
+     * Hito cuyo fin se minimiza primero (null = solo makespan)
+     */
+    public String getMilestoneId() {
+        return milestoneId;
+    }
 }
@@ -0,0 +1,634 @@
+package com.aoe.planner.solver;
+
+import com.aoe.planner.algorithm.CompactGraph;
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.model.*;
+import com.google.ortools.sat.*;
+
+import java.util.*;
+
+/**
+ * Modelo de flujo de recursos acumulables (comida, madera, oro) para CP-SAT.
+ *
+ * Cada recurso es un reservorio cuyo nivel nunca puede ser negativo:
+ * - Stock inicial en el origen (t=0, o el instante actual en un modelo residual)
+ * - Ingreso continuo de los recolectores iniciales (RCPSPModel.getInitialGatherers)
+ * - Ingreso continuo de cada aldeano desde que termina su CREATE_VILLAGER
+ * - Consumo del coste de cada tarea (Task.getCost) en su instante de inicio
+ *
+ * Como el consumo solo ocurre al iniciar tareas, basta exigir el balance
+ * en el inicio de cada tarea consumidora T:
+ *   stock + ingresos(start_T) >= Σ coste(U) para toda U con start_U <= start_T
+ * Los pares ya ordenados por el grafo de precedencias no generan literales.
+ *
+ * Reparto de aldeanos:
+ * - Fijo (por defecto en levelAt y para los hints): el de GameState, cada aldeano
+ *   creado según GameState.fixedAssignment y FEUDAL_GOLD_TARGET aldeanos que pasan
+ *   de comida a oro al iniciar el avance a Feudal (recolectan oro tras TRAVEL_TIME)
+ * - Decidido (setDecideAllocation): cada aldeano creado elige recurso en Oscura y
+ *   cada recolector (también los iniciales) vuelve a elegir al iniciar el avance a Feudal.
+ *   El ingreso de un aldeano en un recurso es tiempo trabajado × [eligió ese recurso],
+ *   con literales de activación en lugar de productos.
+ *
+ * Las cantidades se expresan en centésimas (SCALE) para que las tasas
+ * de recolección sean enteras.
+ */
+public class ResourceFlowModel {
+
+    public static final int SCALE = 100;
+
+    private static final ResourceType[] RESOURCES = {
+        ResourceType.FOOD, ResourceType.WOOD, ResourceType.GOLD
+    };
+
+    private final RCPSPModel rcpspModel;
+    private final Map<String, ResourceType> villagerAllocation;
+    private final CompactGraph precedence; // precedes(a, b): a es ancestro transitivo de b
+    private final Map<String, BoolVar> startsBefore;
+    private int balanceCount;
+
+    // Reparto decidido por CP-SAT
+    private boolean decideAllocation;
+    private final List<String> initialGathererIds;
+    private final Map<String, ResourceType> initialGathererResource;
+    private final Map<String, BoolVar[]> darkChoice;
+    private final Map<String, BoolVar[]> feudalChoice;
+    private final Map<String, LinearArgument> workedCache;
+    private LinearExpr transfers;
+
+    public ResourceFlowModel(RCPSPModel rcpspModel) {
+        this.rcpspModel = rcpspModel;
+        this.villagerAllocation = new LinkedHashMap<>();
+        this.precedence = rcpspModel.getGraph().compact();
+        this.startsBefore = new HashMap<>();
+        this.balanceCount = 0;
+        this.decideAllocation = false;
+        this.initialGathererIds = new ArrayList<>();
+        this.initialGathererResource = new HashMap<>();
+        this.darkChoice = new LinkedHashMap<>();
+        this.feudalChoice = new LinkedHashMap<>();
+        this.workedCache = new HashMap<>();
+        allocateVillagers(rcpspModel.getGraph());
+
+        for (ResourceType resource : RESOURCES) {
+            for (int i = 1; i <= rcpspModel.getInitialGatherers(resource); i++) {
+                String id = "initial_" + resource.name().toLowerCase() + "_" + i;
+                initialGathererIds.add(id);
+                initialGathererResource.put(id, resource);
+            }
+        }
+    }
+
+    /**
+     * Con true, el reparto de aldeanos pasa a ser decisión del modelo
+     * (debe llamarse antes de addConstraints)
+     */
+    public void setDecideAllocation(boolean decideAllocation) {
+        this.decideAllocation = decideAllocation;
+    }
+
+    public boolean isDecideAllocation() {
+        return decideAllocation;
+    }
+
+    /**
+     * Asigna a cada CREATE_VILLAGER (en orden topológico) el recurso que
+     * recolectará, con la misma regla fija que GameState.createVillager
+     */
+    private void allocateVillagers(PrecedenceGraph graph) {
+        int onFood = rcpspModel.getInitialGatherers(ResourceType.FOOD);
+        int onWood = rcpspModel.getInitialGatherers(ResourceType.WOOD);
+
+        for (Task task : graph.getTopologicalOrder()) {
+            if (task.getType() != TaskType.CREATE_VILLAGER) {
+                continue;
+            }
+            ResourceType resource = GameState.fixedAssignment(onFood, onWood);
+            if (resource == ResourceType.FOOD) {
+                onFood++;
+            } else {
+                onWood++;
+            }
+            villagerAllocation.put(task.getId(), resource);
+        }
+    }
+
+    /**
+     * Agrega el balance de cada recurso en el inicio de cada tarea consumidora
+     */
+    public void addConstraints(CpModel model,
+                               Map<String, IntVar> startTimes,
+                               Map<String, LinearExpr> endTimes) {
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        Task feudalTask = findTask(graph, TaskType.ADVANCE_FEUDAL);
+        int maxTime = rcpspModel.getMaxTime();
+        int origin = rcpspModel.getOrigin();
+
+        if (decideAllocation) {
+            createAllocationVariables(model, feudalTask);
+        }
+
+        for (ResourceType resource : RESOURCES) {
+            List<Task> consumers = new ArrayList<>();
+            for (Task task : graph.getAllTasks()) {
+                if (amountOf(task.getCost(), resource) > 0) {
+                    consumers.add(task);
+                }
+            }
+
+            long rate = ratePerSecond(resource);
+            long initial = amountOf(rcpspModel.getInitialResources(), resource) * (long) SCALE;
+
+            for (Task consumer : consumers) {
+                IntVar start = startTimes.get(consumer.getId());
+                LinearExprBuilder balance = LinearExpr.newBuilder();
+
+                // 1. Stock inicial
+                balance.add(initial);
+
+                if (decideAllocation) {
+                    // 2–4. Ingresos según el reparto decidido
+                    addDecidedIncome(model, balance, consumer, resource, feudalTask, startTimes, endTimes);
+                    addConsumption(model, balance, consumer, consumers, resource, startTimes);
+                    model.addGreaterOrEqual(balance, 0);
+                    balanceCount++;
+                    continue;
+                }
+
+                // 2. Recolectores iniciales, desde el origen
+                int gatherers = rcpspModel.getInitialGatherers(resource);
+                if (gatherers > 0) {
+                    balance.addTerm(start, rate * gatherers);
+                    balance.add(-rate * gatherers * origin);
+                }
+
+                // 3. Aldeanos creados: recolectan desde el fin de su entrenamiento
+                for (Map.Entry<String, ResourceType> entry : villagerAllocation.entrySet()) {
+                    if (entry.getValue() != resource) {
+                        continue;
+                    }
+                    LinearArgument worked = elapsedSince(model, consumer.getId(), start,
+                                                         entry.getKey(), endTimes.get(entry.getKey()),
+                                                         maxTime);
+                    if (worked != null) {
+                        balance.addTerm(worked, rate);
+                    }
+                }
+
+                // 4. Reasignación comida → oro al iniciar el avance a Feudal:
+                //    dejan la comida al instante y llegan al oro tras TRAVEL_TIME
+                if (feudalTask != null && resource != ResourceType.WOOD) {
+                    IntVar feudalStart = startTimes.get(feudalTask.getId());
+                    LinearArgument reference = resource == ResourceType.GOLD
+                        ? LinearExpr.affine(feudalStart, 1, GameState.TRAVEL_TIME) : feudalStart;
+                    LinearArgument sinceFeudal = elapsedSince(model, consumer.getId(), start,
+                                                              feudalTask.getId(), reference, maxTime);
+                    if (sinceFeudal != null) {
+                        long sign = resource == ResourceType.GOLD ? 1 : -1;
+                        balance.addTerm(sinceFeudal, sign * rate * GameState.FEUDAL_GOLD_TARGET);
+                    }
+                }
+
+                // 5. Consumo de toda tarea que empiece antes o a la vez
+                addConsumption(model, balance, consumer, consumers, resource, startTimes);
+
+                model.addGreaterOrEqual(balance, 0);
+                balanceCount++;
+            }
+        }
+    }
+
+    private void addConsumption(CpModel model, LinearExprBuilder balance, Task consumer,
+                                List<Task> consumers, ResourceType resource,
+                                Map<String, IntVar> startTimes) {
+        for (Task other : consumers) {
+            if (precedence.precedes(consumer.getId(), other.getId())) {
+                continue; // siempre empieza después
+            }
+            long cost = amountOf(other.getCost(), resource) * (long) SCALE;
+            BoolVar before = startsBefore(model, other.getId(), consumer.getId(), startTimes);
+            if (before == null) {
+                balance.add(-cost);
+            } else {
+                balance.addTerm(before, -cost);
+            }
+        }
+    }
+
+    /**
+     * Un literal por recurso y fase para cada recolector, con exactamente uno activo.
+     * Los iniciales tienen fijo su recurso de Oscura; sin avance a Feudal en el
+     * grafo solo existe la elección de Oscura (fase actual).
+     */
+    private void createAllocationVariables(CpModel model, Task feudalTask) {
+        for (String villagerId : villagerAllocation.keySet()) {
+            darkChoice.put(villagerId, exactlyOneChoice(model, villagerId + "_dark"));
+        }
+        if (feudalTask == null) {
+            transfers = LinearExpr.constant(villagerAllocation.size());
+            return;
+        }
+
+        List<String> gatherers = new ArrayList<>(initialGathererIds);
+        gatherers.addAll(villagerAllocation.keySet());
+        for (String gathererId : gatherers) {
+            feudalChoice.put(gathererId, exactlyOneChoice(model, gathererId + "_feudal"));
+        }
+
+        // Traslados: uno por aldeano creado más cada cambio de recurso en Feudal
+        LinearExprBuilder count = LinearExpr.newBuilder();
+        count.add(villagerAllocation.size());
+        for (String gathererId : gatherers) {
+            BoolVar changed = model.newBoolVar(gathererId + "_changed");
+            BoolVar[] feudal = feudalChoice.get(gathererId);
+            for (int r = 0; r < RESOURCES.length; r++) {
+                if (initialGathererResource.containsKey(gathererId)) {
+                    if (initialGathererResource.get(gathererId) != RESOURCES[r]) {
+                        model.addImplication(feudal[r], changed);
+                    }
+                } else {
+                    // changed >= feudal_r - dark_r
+                    model.addGreaterOrEqual(LinearExpr.weightedSum(
+                        new LinearArgument[]{changed, feudal[r], darkChoice.get(gathererId)[r]},
+                        new long[]{1, -1, 1}), 0);
+                }
+            }
+            count.add(changed);
+        }
+        transfers = count.build();
+    }
+
+    private BoolVar[] exactlyOneChoice(CpModel model, String name) {
+        BoolVar[] choice = new BoolVar[RESOURCES.length];
+        for (int r = 0; r < RESOURCES.length; r++) {
+            choice[r] = model.newBoolVar(name + "_" + RESOURCES[r].name().toLowerCase());
+        }
+        model.addExactlyOne(choice);
+        return choice;
+    }
+
+    /**
+     * Ingresos de 'resource' hasta el inicio de 'consumer' con el reparto decidido:
+     * - Iniciales: su recurso fijo hasta Feudal, su elección de Feudal después
+     * - Creados: elección de Oscura entre su fin y Feudal, elección de Feudal desde entonces
+     */
+    private void addDecidedIncome(CpModel model, LinearExprBuilder balance, Task consumer,
+                                  ResourceType resource, Task feudalTask,
+                                  Map<String, IntVar> startTimes, Map<String, LinearExpr> endTimes) {
+        int r = Arrays.asList(RESOURCES).indexOf(resource);
+        long rate = ratePerSecond(resource);
+        String t = consumer.getId();
+        IntVar start = startTimes.get(t);
+        int maxTime = rcpspModel.getMaxTime();
+        long origin = rcpspModel.getOrigin();
+
+        // Iniciales en Oscura (o fase actual)
+        int gatherers = rcpspModel.getInitialGatherers(resource);
+        if (gatherers > 0) {
+            LinearArgument untilFeudal = feudalTask == null ? start : untilFeudal(model, t, start, feudalTask, startTimes);
+            balance.addTerm(untilFeudal, rate * gatherers);
+            balance.add(-rate * gatherers * origin);
+        }
+
+        if (feudalTask != null) {
+            LinearArgument sinceFeudal = elapsedSince(model, t, start, feudalTask.getId(),
+                                                      startTimes.get(feudalTask.getId()), maxTime);
+            if (sinceFeudal != null) {
+                for (String gathererId : initialGathererIds) {
+                    balance.addTerm(chosenWork(model, feudalChoice.get(gathererId)[r], sinceFeudal,
+                                               gathererId + "_f_" + resource + "_" + t, maxTime), rate);
+                }
+            }
+        }
+
+        // Aldeanos creados
+        for (String villagerId : villagerAllocation.keySet()) {
+            if (villagerId.equals(t) || precedence.precedes(t, villagerId)) {
+                continue; // termina después de que empiece el consumidor
+            }
+            LinearArgument end = endTimes.get(villagerId);
+
+            if (feudalTask == null) {
+                LinearArgument worked = elapsedSince(model, t, start, villagerId, end, maxTime);
+                if (worked != null) {
+                    balance.addTerm(chosenWork(model, darkChoice.get(villagerId)[r], worked,
+                                               villagerId + "_d_" + resource + "_" + t, maxTime), rate);
+                }
+                continue;
+            }
+
+            LinearArgument dark = workedInDark(model, t, start, villagerId, end, feudalTask, startTimes);
+            if (dark != null) {
+                balance.addTerm(chosenWork(model, darkChoice.get(villagerId)[r], dark,
+                                           villagerId + "_d_" + resource + "_" + t, maxTime), rate);
+            }
+            LinearArgument feudal = workedInFeudal(model, t, start, villagerId, end, feudalTask, startTimes);
+            if (feudal != null) {
+                balance.addTerm(chosenWork(model, feudalChoice.get(villagerId)[r], feudal,
+                                           villagerId + "_f_" + resource + "_" + t, maxTime), rate);
+            }
+        }
+    }
+
+    /**
+     * w = worked si 'chosen', 0 si no
+     */
+    private IntVar chosenWork(CpModel model, BoolVar chosen, LinearArgument worked, String name, int maxTime) {
+        IntVar work = model.newIntVar(0, maxTime, name);
+        model.addEquality(work, worked).onlyEnforceIf(chosen);
+        model.addEquality(work, 0).onlyEnforceIf(chosen.not());
+        return work;
+    }
+
+    /**
+     * min(start_T, start_Feudal)
+     */
+    private LinearArgument untilFeudal(CpModel model, String taskId, IntVar start, Task feudalTask,
+                                       Map<String, IntVar> startTimes) {
+        String feudalId = feudalTask.getId();
+        if (taskId.equals(feudalId) || precedence.precedes(taskId, feudalId)) {
+            return start;
+        }
+        IntVar feudalStart = startTimes.get(feudalId);
+        if (precedence.precedes(feudalId, taskId)) {
+            return feudalStart;
+        }
+        return workedCache.computeIfAbsent(taskId + "_until_feudal", key -> {
+            IntVar until = model.newIntVar(0, rcpspModel.getMaxTime(), key);
+            model.addMinEquality(until, new LinearArgument[]{start, feudalStart});
+            return until;
+        });
+    }
+
+    /**
+     * max(0, min(start_T, start_Feudal) - fin_v): trabajo del aldeano antes de Feudal
+     */
+    private LinearArgument workedInDark(CpModel model, String taskId, IntVar start, String villagerId,
+                                        LinearArgument end, Task feudalTask, Map<String, IntVar> startTimes) {
+        if (precedence.precedes(feudalTask.getId(), villagerId)) {
+            return null; // nace en Feudal
+        }
+        LinearArgument until = untilFeudal(model, taskId, start, feudalTask, startTimes);
+        LinearExpr diff = LinearExpr.weightedSum(new LinearArgument[]{until, end}, new long[]{1, -1});
+        boolean endsBeforeFeudal = precedence.precedes(villagerId, feudalTask.getId());
+        if (endsBeforeFeudal && precedence.precedes(villagerId, taskId)) {
+            return diff;
+        }
+        return workedCache.computeIfAbsent(villagerId + "_dark_" + taskId, key -> {
+            IntVar worked = model.newIntVar(0, rcpspModel.getMaxTime(), key);
+            model.addMaxEquality(worked, new LinearArgument[]{diff, LinearExpr.constant(0)});
+            return worked;
+        });
+    }
+
+    /**
+     * max(0, start_T - max(fin_v, start_Feudal)): trabajo del aldeano desde Feudal
+     */
+    private LinearArgument workedInFeudal(CpModel model, String taskId, IntVar start, String villagerId,
+                                          LinearArgument end, Task feudalTask, Map<String, IntVar> startTimes) {
+        String feudalId = feudalTask.getId();
+        int maxTime = rcpspModel.getMaxTime();
+        IntVar feudalStart = startTimes.get(feudalId);
+
+        if (precedence.precedes(villagerId, feudalId)) {
+            // Ya trabajaba al iniciar Feudal
+            return elapsedSince(model, taskId, start, feudalId, feudalStart, maxTime);
+        }
+        if (precedence.precedes(feudalId, villagerId)) {
+            return elapsedSince(model, taskId, start, villagerId, end, maxTime);
+        }
+        if (taskId.equals(feudalId) || precedence.precedes(taskId, feudalId)) {
+            return null; // el consumidor empieza antes de Feudal
+        }
+        return workedCache.computeIfAbsent(villagerId + "_feudal_" + taskId, key -> {
+            IntVar from = model.newIntVar(0, maxTime, key + "_from");
+            model.addMaxEquality(from, new LinearArgument[]{end, feudalStart});
+            IntVar worked = model.newIntVar(0, maxTime, key);
+            model.addMaxEquality(worked, new LinearArgument[]{
+                LinearExpr.weightedSum(new LinearArgument[]{start, from}, new long[]{1, -1}),
+                LinearExpr.constant(0)});
+            return worked;
+        });
+    }
+
+    /**
+     * Hints del reparto: la solución de 'previous' o, si es null, las reglas fijas de GameState
+     */
+    public void addAllocationHints(CpModel model, CpSolver previous) {
+        if (!decideAllocation) {
+            return;
+        }
+        Map<String, ResourceType> feudalRule = feudalRuleAllocation();
+        for (Map.Entry<String, BoolVar[]> entry : darkChoice.entrySet()) {
+            hintChoice(model, entry.getValue(), previous == null
+                ? villagerAllocation.get(entry.getKey()) : chosen(previous, entry.getValue()));
+        }
+        for (Map.Entry<String, BoolVar[]> entry : feudalChoice.entrySet()) {
+            hintChoice(model, entry.getValue(), previous == null
+                ? feudalRule.get(entry.getKey()) : chosen(previous, entry.getValue()));
+        }
+    }
+
+    /**
+     * Regla de GameState al avanzar: los primeros FEUDAL_GOLD_TARGET recolectores
+     * de comida presentes antes de Feudal pasan a oro; el resto sigue igual
+     */
+    private Map<String, ResourceType> feudalRuleAllocation() {
+        Map<String, ResourceType> rule = new HashMap<>();
+        Task feudalTask = findTask(rcpspModel.getGraph(), TaskType.ADVANCE_FEUDAL);
+        int moved = 0;
+        for (String gathererId : feudalChoice.keySet()) {
+            ResourceType dark = initialGathererResource.containsKey(gathererId)
+                ? initialGathererResource.get(gathererId)
+                : villagerAllocation.get(gathererId);
+            boolean beforeFeudal = initialGathererResource.containsKey(gathererId)
+                || (feudalTask != null && precedence.precedes(gathererId, feudalTask.getId()));
+            if (dark == ResourceType.FOOD && beforeFeudal && moved < GameState.FEUDAL_GOLD_TARGET) {
+                rule.put(gathererId, ResourceType.GOLD);
+                moved++;
+            } else {
+                rule.put(gathererId, dark);
+            }
+        }
+        return rule;
+    }
+
+    private static void hintChoice(CpModel model, BoolVar[] choice, ResourceType resource) {
+        for (int r = 0; r < RESOURCES.length; r++) {
+            model.addHint(choice[r], RESOURCES[r] == resource ? 1 : 0);
+        }
+    }
+
+    /**
+     * Reparto de la solución para que GameState lo siga; null con reparto fijo
+     */
+    public AllocationPlan readAllocation(CpSolver solver, Map<String, Long> startTimes) {
+        if (!decideAllocation) {
+            return null;
+        }
+        Task feudalTask = findTask(rcpspModel.getGraph(), TaskType.ADVANCE_FEUDAL);
+        Long feudalStart = feudalTask == null ? null : startTimes.get(feudalTask.getId());
+
+        List<ResourceType> created = new ArrayList<>();
+        for (String villagerId : villagerAllocation.keySet()) {
+            boolean bornInFeudal = feudalStart != null && startTimes.get(villagerId) >= feudalStart;
+            created.add(chosen(solver, bornInFeudal ? feudalChoice.get(villagerId) : darkChoice.get(villagerId)));
+        }
+
+        Map<ResourceType, Integer> targets = new EnumMap<>(ResourceType.class);
+        if (feudalStart != null) {
+            for (Map.Entry<String, BoolVar[]> entry : feudalChoice.entrySet()) {
+                Long start = startTimes.get(entry.getKey());
+                if (start == null || start < feudalStart) {
+                    targets.merge(chosen(solver, entry.getValue()), 1, Integer::sum);
+                }
+            }
+        }
+        return new AllocationPlan(created, targets);
+    }
+
+    private static ResourceType chosen(CpSolver solver, BoolVar[] choice) {
+        for (int r = 0; r < RESOURCES.length; r++) {
+            if (solver.booleanValue(choice[r])) {
+                return RESOURCES[r];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Traslados de aldeanos implicados por el reparto: uno por aldeano creado
+     * y uno por recolector que cambia de recurso en Feudal. Con el reparto fijo
+     * es constante (FEUDAL_GOLD_TARGET cambios).
+     */
+    public LinearExpr transfersExpression() {
+        if (decideAllocation && transfers != null) {
+            return transfers;
+        }
+        long fixed = villagerAllocation.size();
+        if (findTask(rcpspModel.getGraph(), TaskType.ADVANCE_FEUDAL) != null) {
+            fixed += GameState.FEUDAL_GOLD_TARGET;
+        }
+        return LinearExpr.constant(fixed);
+    }
+
+    /**
+     * Nivel del recurso (en centésimas) en el instante 'time' para un plan
+     * concreto, considerando solo las tareas presentes en startTimes.
+     * Es la misma cuenta que imponen las restricciones de balance.
+     */
+    public long levelAt(ResourceType resource, long time, Map<String, Long> startTimes) {
+        PrecedenceGraph graph = rcpspModel.getGraph();
+        long rate = ratePerSecond(resource);
+        long level = amountOf(rcpspModel.getInitialResources(), resource) * (long) SCALE;
+
+        level += rate * rcpspModel.getInitialGatherers(resource) * Math.max(0, time - rcpspModel.getOrigin());
+
+        for (Map.Entry<String, ResourceType> entry : villagerAllocation.entrySet()) {
+            Long start = startTimes.get(entry.getKey());
+            if (entry.getValue() == resource && start != null) {
+                long end = start + graph.getTask(entry.getKey()).getDuration();
+                level += rate * Math.max(0, time - end);
+            }
+        }
+
+        Task feudalTask = findTask(graph, TaskType.ADVANCE_FEUDAL);
+        if (feudalTask != null && startTimes.containsKey(feudalTask.getId())) {
+            long sinceFeudal = Math.max(0, time - startTimes.get(feudalTask.getId()));
+            if (resource == ResourceType.GOLD) {
+                long sinceArrival = Math.max(0, sinceFeudal - GameState.TRAVEL_TIME);
+                level += rate * GameState.FEUDAL_GOLD_TARGET * sinceArrival;
+            } else if (resource == ResourceType.FOOD) {
+                level -= rate * GameState.FEUDAL_GOLD_TARGET * sinceFeudal;
+            }
+        }
+
+        for (Map.Entry<String, Long> entry : startTimes.entrySet()) {
+            if (entry.getValue() <= time) {
+                level -= amountOf(graph.getTask(entry.getKey()).getCost(), resource) * (long) SCALE;
+            }
+        }
+
+        return level;
+    }
+
+    /**
+     * Tiempo transcurrido max(0, start_T - ref) entre el evento 'ref' y el inicio de T.
+     * Devuelve null si la referencia siempre ocurre después de T.
+     */
+    private LinearArgument elapsedSince(CpModel model, String taskId, IntVar start,
+                                        String refId, LinearArgument ref, int maxTime) {
+        if (precedence.precedes(taskId, refId)) {
+            return null;
+        }
+
+        LinearExpr diff = LinearExpr.weightedSum(new LinearArgument[]{start, ref}, new long[]{1, -1});
+        if (precedence.precedes(refId, taskId)) {
+            return diff;
+        }
+
+        IntVar elapsed = model.newIntVar(0, maxTime, taskId + "_since_" + refId);
+        model.addMaxEquality(elapsed, new LinearArgument[]{diff, LinearExpr.constant(0)});
+        return elapsed;
+    }
+
+    /**
+     * Literal [start_U <= start_T]. Devuelve null si las precedencias
+     * ya garantizan que U empieza antes que T.
+     */
+    private BoolVar startsBefore(CpModel model, String u, String t, Map<String, IntVar> startTimes) {
+        if (u.equals(t) || precedence.precedes(u, t)) {
+            return null;
+        }
+
+        String key = u + "<=" + t;
+        BoolVar literal = startsBefore.get(key);
+        if (literal == null) {
+            literal = model.newBoolVar(key);
+            model.addLessOrEqual(startTimes.get(u), startTimes.get(t)).onlyEnforceIf(literal);
+            model.addGreaterThan(startTimes.get(u), startTimes.get(t)).onlyEnforceIf(literal.not());
+            startsBefore.put(key, literal);
+        }
+        return literal;
+    }
+
+    /**
+     * Tasa de recolección por aldeano en centésimas por segundo
+     */
+    public static long ratePerSecond(ResourceType resource) {
+        return switch (resource) {
+            case FOOD -> Math.round(GameState.FOOD_GATHER_RATE * SCALE);
+            case WOOD -> Math.round(GameState.WOOD_GATHER_RATE * SCALE);
+            case GOLD -> Math.round(GameState.GOLD_GATHER_RATE * SCALE);
+        };
+    }
+
+    public static int amountOf(Resource resource, ResourceType type) {
+        return switch (type) {
+            case FOOD -> resource.getFood();
+            case WOOD -> resource.getWood();
+            case GOLD -> resource.getGold();
+        };
+    }
+
+    private static Task findTask(PrecedenceGraph graph, TaskType type) {
+        for (Task task : graph.getAllTasks()) {
+            if (task.getType() == type) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    public Map<String, ResourceType> getVillagerAllocation() {
+        return villagerAllocation;
+    }
+
+    public int getBalanceCount() {
+        return balanceCount;
+    }
+
+    public int getOrderLiteralCount() {
+        return startsBefore.size();
+    }
+}
@@ -0,0 +1,117 @@
+package com.aoe.planner.solver;
+
+import com.aoe.planner.algorithm.PrecedenceGraph;
+import com.aoe.planner.model.GameState;
+import com.aoe.planner.model.Task;
+import com.google.ortools.sat.CpSolverStatus;
+
+import java.util.*;
+
+/**
+ * Re-planificación con horizonte deslizante sobre una partida en curso.
+ *
+ * Tras la resolución inicial del modelo completo, cada llamada a replan:
+ * - Congela las tareas ya iniciadas, que indica quien ejecuta el plan
+ *   (el simulador no sabe qué tarea del grafo corresponde a cada acción,
+ *   y el plan vigente va por delante de la simulación)
+ * - Construye el modelo residual con recursos, recolectores y TC del GameState
+ * - Resuelve solo las tareas restantes con un presupuesto corto,
+ *   usando el plan vigente como hints
+ * Si la re-planificación no encuentra solución se conserva el plan vigente.
+ */
+public class RollingHorizonPlanner {
+
+    private final RCPSPModel fullModel;
+    private final SolverProfile replanProfile;
+    private final Map<String, Long> schedule;
+    private int replanCount;
+
+    public RollingHorizonPlanner(RCPSPModel fullModel, SolverProfile replanProfile) {
+        this.fullModel = fullModel;
+        this.replanProfile = replanProfile;
+        this.schedule = new LinkedHashMap<>();
+        this.replanCount = 0;
+    }
+
+    /**
+     * Resolución completa desde t=0 (la única que paga el horizonte entero)
+     */
+    public SolverResult solveInitial(SolverProfile profile) {
+        CPSATSolver solver = new CPSATSolver(fullModel);
+        solver.setProfile(profile);
+        solver.setVerbose(false);
+        solver.setWarmStart(true);
+        SolverResult result = solver.solveSchedule();
+        if (result.hasSolution()) {
+            schedule.clear();
+            schedule.putAll(result.getStartTimes());
+        }
+        return result;
+    }
+
+    /**
+     * Re-planifica desde el instante actual de 'state' con el conjunto
+     * explícito de tareas ya iniciadas
+     */
+    public SolverResult replan(GameState state, Set<String> startedTaskIds) {
+        replanCount++;
+        RCPSPModel residual = RCPSPModel.residual(fullModel, state, startedTaskIds, schedule);
+        PrecedenceGraph graph = residual.getGraph();
+
+        if (graph.size() == 0) {
+            return new SolverResult(CpSolverStatus.OPTIMAL,
+                                    ConstructiveScheduler.makespanOf(fullModel.getGraph(), schedule),
+                                    0, 0.0, new LinkedHashMap<>(), new ArrayList<>());
+        }
+
+        SolverProfile profile = replanProfile.copy();
+        profile.setLogSearchProgress(false);
+
+        CPSATSolver solver = new CPSATSolver(residual);
+        solver.setProfile(profile);
+        solver.setVerbose(false);
+        solver.setWarmStart(true);
+        solver.setPreviousSolution(remainingHints(graph));
+        SolverResult result = solver.solveSchedule();
+
+        if (result.hasSolution()) {
+            for (Task task : graph.getAllTasks()) {
+                schedule.remove(task.getId());
+            }
+            schedule.putAll(result.getStartTimes());
+        } else {
+            System.out.println("⚠ Re-planificación en t=" + state.getCurrentTime()
+                             + " sin solución (" + result.getStatus() + "), se mantiene el plan vigente");
+        }
+        return result;
+    }
+
+    /**
+     * Inicios del plan vigente para las tareas que siguen pendientes
+     */
+    private Map<String, Long> remainingHints(PrecedenceGraph residualGraph) {
+        Map<String, Long> hints = new HashMap<>();
+        for (Task task : residualGraph.getAllTasks()) {
+            Long start = schedule.get(task.getId());
+            if (start != null) {
+                hints.put(task.getId(), start);
+            }
+        }
+        return hints;
+    }
+
+    /**
+     * Plan vigente completo: tareas iniciadas más las re-planificadas
+     */
+    public Map<String, Long> getSchedule() {
+        return schedule;
+    }
+
+    public long getMakespan() {
+        return ConstructiveScheduler.makespanOf(fullModel.getGraph(), schedule);
+    }
+
+    public int getReplanCount() {
+        return replanCount;
+    }
+}
@@ -0,0 +1,227 @@
+package com.aoe.planner.solver;
+
+import com.aoe.planner.model.AllocationPlan;
+import com.aoe.planner.model.ResourceType;
+import com.google.ortools.sat.CpSolverStatus;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Caché de planes resueltos indexada por ModelFingerprint.
+ *
+ * - Nivel en memoria: LRU con capacidad fija
+ * - Nivel en disco (opcional): un archivo .properties por huella,
+ *   sobrevive a reinicios y se carga en memoria al primer acceso
+ *
+ * Una entrada solo se reemplaza por un resultado mejor (makespan menor,
+ * o el mismo makespan con mejor cota). Solo se sirve como respuesta si su
+ * cota demuestra el gap pedido; si no, sirve como hint para volver a resolver.
+ * Es segura entre hilos.
+ */
+public class ScheduleCache {
+
+    private final int capacity;
+    private final Path directory;
+    private final LinkedHashMap<String, SolverResult> entries;
+    private long hits;
+    private long misses;
+
+    public ScheduleCache(int capacity) {
+        this(capacity, null);
+    }
+
+    public ScheduleCache(int capacity, Path directory) {
+        this.capacity = Math.max(1, capacity);
+        this.directory = directory;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SolverResult> eldest) {
+                return size() > ScheduleCache.this.capacity;
+            }
+        };
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo crear el directorio de caché " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Entrada que cumple 'relativeGap' (0 = óptimo demostrado), o null
+     */
+    public synchronized SolverResult get(String fingerprint, double relativeGap) {
+        SolverResult result = load(fingerprint);
+        if (result == null || !result.meetsGap(relativeGap)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return result;
+    }
+
+    /**
+     * Entrada guardada, sea cual sea su calidad (para usarla como hint)
+     */
+    public synchronized SolverResult peek(String fingerprint) {
+        return load(fingerprint);
+    }
+
+    private SolverResult load(String fingerprint) {
+        SolverResult result = entries.get(fingerprint);
+        if (result == null && directory != null) {
+            result = readFromDisk(fingerprint);
+            if (result != null) {
+                entries.put(fingerprint, result);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void put(String fingerprint, SolverResult result) {
+        if (!result.hasSolution()) {
+            return;
+        }
+        SolverResult current = entries.get(fingerprint);
+        if (current != null && !isBetter(result, current)) {
+            return;
+        }
+        entries.put(fingerprint, result);
+        if (directory != null) {
+            writeToDisk(fingerprint, result);
+        }
+    }
+
+    private static boolean isBetter(SolverResult candidate, SolverResult current) {
+        if (candidate.getMakespan() != current.getMakespan()) {
+            return candidate.getMakespan() < current.getMakespan();
+        }
+        return Math.ceil(candidate.getBestBound()) > Math.ceil(current.getBestBound());
+    }
+
+    private Path fileFor(String fingerprint) {
+        return directory.resolve(fingerprint + ".properties");
+    }
+
+    private void writeToDisk(String fingerprint, SolverResult result) {
+        Properties props = new Properties();
+        props.setProperty("status", result.getStatus().name());
+        props.setProperty("makespan", Long.toString(result.getMakespan()));
+        props.setProperty("bound", Double.toString(result.getBestBound()));
+        props.setProperty("wallTime", Double.toString(result.getWallTime()));
+        for (Map.Entry<String, Long> entry : result.getStartTimes().entrySet()) {
+            props.setProperty("start." + entry.getKey(), entry.getValue().toString());
+        }
+        List<String> plan = result.getPlan();
+        props.setProperty("plan.size", Integer.toString(plan.size()));
+        for (int i = 0; i < plan.size(); i++) {
+            props.setProperty("plan." + i, plan.get(i));
+        }
+        AllocationPlan allocation = result.getAllocation();
+        if (allocation != null) {
+            StringJoiner created = new StringJoiner(",");
+            for (ResourceType resource : allocation.getCreatedVillagers()) {
+                created.add(resource.name());
+            }
+            props.setProperty("allocation.created", created.toString());
+            for (Map.Entry<ResourceType, Integer> entry : allocation.getFeudalTargets().entrySet()) {
+                props.setProperty("allocation.feudal." + entry.getKey().name(), entry.getValue().toString());
+            }
+        }
+
+        // Escritura atómica: archivo temporal + rename
+        Path target = fileFor(fingerprint);
+        Path temp = directory.resolve(fingerprint + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            props.store(out, "Plan resuelto " + fingerprint);
+        } catch (IOException e) {
+            System.out.println("⚠ No se pudo guardar en caché: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("⚠ No se pudo guardar en caché: " + e.getMessage());
+        }
+    }
+
+    private SolverResult readFromDisk(String fingerprint) {
+        Path file = fileFor(fingerprint);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(in);
+
+            Map<String, Long> startTimes = new TreeMap<>();
+            for (String name : props.stringPropertyNames()) {
+                if (name.startsWith("start.")) {
+                    startTimes.put(name.substring("start.".length()), Long.parseLong(props.getProperty(name)));
+                }
+            }
+            List<Map.Entry<String, Long>> ordered = new ArrayList<>(startTimes.entrySet());
+            ordered.sort(Map.Entry.comparingByValue());
+            Map<String, Long> sortedStarts = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : ordered) {
+                sortedStarts.put(entry.getKey(), entry.getValue());
+            }
+
+            int planSize = Integer.parseInt(props.getProperty("plan.size"));
+            List<String> plan = new ArrayList<>();
+            for (int i = 0; i < planSize; i++) {
+                plan.add(props.getProperty("plan." + i));
+            }
+
+            SolverResult result = new SolverResult(CpSolverStatus.valueOf(props.getProperty("status")),
+                                                   Long.parseLong(props.getProperty("makespan")),
+                                                   Double.parseDouble(props.getProperty("bound")),
+                                                   Double.parseDouble(props.getProperty("wallTime")),
+                                                   sortedStarts, plan);
+            String created = props.getProperty("allocation.created");
+            if (created != null) {
+                List<ResourceType> villagers = new ArrayList<>();
+                for (String name : created.split(",")) {
+                    if (!name.isEmpty()) {
+                        villagers.add(ResourceType.valueOf(name));
+                    }
+                }
+                Map<ResourceType, Integer> targets = new EnumMap<>(ResourceType.class);
+                for (ResourceType resource : ResourceType.values()) {
+                    String target = props.getProperty("allocation.feudal." + resource.name());
+                    if (target != null) {
+                        targets.put(resource, Integer.parseInt(target));
+                    }
+                }
+                result.setAllocation(new AllocationPlan(villagers, targets));
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("⚠ Entrada de caché ilegible, se ignora: " + file);
+            return null;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ScheduleCache{size=%d/%d, hits=%d, misses=%d, disk=%s}",
+                           entries.size(), capacity, hits, misses,
+                           directory == null ? "-" : directory);
+    }
+}
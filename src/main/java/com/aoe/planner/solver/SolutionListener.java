@@ -0,0 +1,37 @@
+package com.aoe.planner.solver;
+
+/**
+ * Recibe cada incumbente que mejora el makespan durante la búsqueda de CP-SAT.
+ * Devolver false detiene la búsqueda y CPSATSolver devuelve el incumbente actual.
+ */
+@FunctionalInterface
+public interface SolutionListener {
+
+    boolean onSolution(IncumbentSolution incumbent);
+
+    /**
+     * Detiene la búsqueda en cuanto el gap relativo es menor o igual al objetivo
+     * (sin cota del makespan no hay gap y la búsqueda sigue)
+     */
+    static SolutionListener untilGap(double targetGap) {
+        return incumbent -> !incumbent.hasBound() || incumbent.getGap() > targetGap;
+    }
+
+    /**
+     * Detiene la búsqueda en cuanto se encuentra un plan con makespan <= target
+     */
+    static SolutionListener untilMakespan(long targetMakespan) {
+        return incumbent -> incumbent.getMakespan() > targetMakespan;
+    }
+
+    /**
+     * Encadena dos listeners: ambos reciben el incumbente y cualquiera puede detener
+     */
+    default SolutionListener and(SolutionListener other) {
+        return incumbent -> {
+            boolean continueThis = this.onSolution(incumbent);
+            boolean continueOther = other.onSolution(incumbent);
+            return continueThis && continueOther;
+        };
+    }
+}
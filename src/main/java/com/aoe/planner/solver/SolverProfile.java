@@ -0,0 +1,108 @@
+package com.aoe.planner.solver;
+
+import com.google.ortools.sat.SatParameters;
+
+/**
+ * Parámetros de búsqueda de CP-SAT agrupados en un perfil.
+ *
+ * Perfiles predefinidos:
+ * - default:    60 s, 4 workers, log activado (comportamiento original)
+ * - latency:    respuesta rápida, todos los núcleos, gap 5%
+ * - throughput: un worker determinista por resolución, para lotes y barridos
+ * - optimal:    hasta 5 min con todos los núcleos buscando el óptimo probado
+ */
+public class SolverProfile {
+
+    public static final int ALL_CORES = 0;
+
+    private String name;
+    private double maxTimeInSeconds;
+    private double maxDeterministicTime; // 0 = sin límite
+    private int workers;                 // ALL_CORES = todos los núcleos disponibles
+    private double relativeGap;
+    private int randomSeed;
+    private boolean logSearchProgress;
+
+    public SolverProfile(String name, double maxTimeInSeconds, double maxDeterministicTime,
+                         int workers, double relativeGap, int randomSeed, boolean logSearchProgress) {
+        this.name = name;
+        this.maxTimeInSeconds = maxTimeInSeconds;
+        this.maxDeterministicTime = maxDeterministicTime;
+        this.workers = workers;
+        this.relativeGap = relativeGap;
+        this.randomSeed = randomSeed;
+        this.logSearchProgress = logSearchProgress;
+    }
+
+    public static SolverProfile defaults() {
+        return new SolverProfile("default", 60.0, 0.0, 4, 0.0, 0, true);
+    }
+
+    public static SolverProfile latency() {
+        return new SolverProfile("latency", 2.0, 0.0, ALL_CORES, 0.05, 0, false);
+    }
+
+    public static SolverProfile throughput() {
+        return new SolverProfile("throughput", 10.0, 5.0, 1, 0.01, 0, false);
+    }
+
+    public static SolverProfile optimal() {
+        return new SolverProfile("optimal", 300.0, 0.0, ALL_CORES, 0.0, 0, true);
+    }
+
+    public static SolverProfile fromName(String name) {
+        return switch (name.toLowerCase()) {
+            case "default" -> defaults();
+            case "latency" -> latency();
+            case "throughput" -> throughput();
+            case "optimal" -> optimal();
+            default -> throw new IllegalArgumentException("Perfil de solver desconocido: " + name);
+        };
+    }
+
+    public SolverProfile copy() {
+        return new SolverProfile(name, maxTimeInSeconds, maxDeterministicTime,
+                                 workers, relativeGap, randomSeed, logSearchProgress);
+    }
+
+    /**
+     * Número efectivo de workers (resuelve ALL_CORES)
+     */
+    public int resolveWorkers() {
+        return workers == ALL_CORES ? Runtime.getRuntime().availableProcessors() : workers;
+    }
+
+    public void applyTo(SatParameters.Builder parameters) {
+        parameters.setMaxTimeInSeconds(maxTimeInSeconds);
+        if (maxDeterministicTime > 0) {
+            parameters.setMaxDeterministicTime(maxDeterministicTime);
+        }
+        parameters.setNumSearchWorkers(resolveWorkers());
+        parameters.setRelativeGapLimit(relativeGap);
+        parameters.setRandomSeed(randomSeed);
+        parameters.setLogSearchProgress(logSearchProgress);
+    }
+
+    // Getters y setters
+    public String getName() { return name; }
+    public double getMaxTimeInSeconds() { return maxTimeInSeconds; }
+    public double getMaxDeterministicTime() { return maxDeterministicTime; }
+    public int getWorkers() { return workers; }
+    public double getRelativeGap() { return relativeGap; }
+    public int getRandomSeed() { return randomSeed; }
+    public boolean isLogSearchProgress() { return logSearchProgress; }
+
+    public void setMaxTimeInSeconds(double maxTimeInSeconds) { this.maxTimeInSeconds = maxTimeInSeconds; }
+    public void setMaxDeterministicTime(double maxDeterministicTime) { this.maxDeterministicTime = maxDeterministicTime; }
+    public void setWorkers(int workers) { this.workers = workers; }
+    public void setRelativeGap(double relativeGap) { this.relativeGap = relativeGap; }
+    public void setRandomSeed(int randomSeed) { this.randomSeed = randomSeed; }
+    public void setLogSearchProgress(boolean logSearchProgress) { this.logSearchProgress = logSearchProgress; }
+
+    @Override
+    public String toString() {
+        return String.format("SolverProfile{%s: tiempo=%.1fs, det=%.1f, workers=%d, gap=%.3f, seed=%d, log=%s}",
+                           name, maxTimeInSeconds, maxDeterministicTime, resolveWorkers(),
+                           relativeGap, randomSeed, logSearchProgress);
+    }
+}
@@ -0,0 +1,86 @@
+package com.aoe.planner.solver;
+
+import com.aoe.planner.model.AllocationPlan;
+import com.google.ortools.sat.CpSolverStatus;
+
+import java.util.*;
+
+/**
+ * Resultado de una ejecución de CPSATSolver: estado, makespan, cota,
+ * tiempos de inicio por tarea y plan de acciones para el simulador.
+ */
+public class SolverResult {
+    private final CpSolverStatus status;
+    private final long makespan;
+    private final double bestBound;
+    private final double wallTime; // segundos
+    private final Map<String, Long> startTimes;
+    private final List<String> plan;
+    private final Map<String, Long> objectives; // valor de cada etapa lexicográfica
+    private AllocationPlan allocation; // null con el reparto fijo de GameState
+    private String reason;             // causa conocida cuando no hay solución
+
+    public SolverResult(CpSolverStatus status, long makespan, double bestBound, double wallTime,
+                        Map<String, Long> startTimes, List<String> plan) {
+        this.status = status;
+        this.makespan = makespan;
+        this.bestBound = bestBound;
+        this.wallTime = wallTime;
+        this.startTimes = startTimes;
+        this.plan = plan;
+        this.objectives = new LinkedHashMap<>();
+    }
+
+    public static SolverResult noSolution(CpSolverStatus status, double wallTime) {
+        return new SolverResult(status, -1, -1, wallTime, new LinkedHashMap<>(), new ArrayList<>());
+    }
+
+    /**
+     * Inviabilidad demostrada antes de buscar (p. ej. una ventana vacía)
+     */
+    public static SolverResult infeasible(String reason, double wallTime) {
+        SolverResult result = noSolution(CpSolverStatus.INFEASIBLE, wallTime);
+        result.reason = reason;
+        return result;
+    }
+
+    public boolean hasSolution() {
+        return status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE;
+    }
+
+    /**
+     * true si la cota demuestra un gap relativo no mayor que 'relativeGap'.
+     * No basta con OPTIMAL: con un gap límite > 0 CP-SAT también lo declara.
+     */
+    public boolean meetsGap(double relativeGap) {
+        if (!hasSolution()) {
+            return false;
+        }
+        return makespan - (long) Math.ceil(bestBound) <= relativeGap * makespan;
+    }
+
+    // Getters
+    public CpSolverStatus getStatus() { return status; }
+    public long getMakespan() { return makespan; }
+    public double getBestBound() { return bestBound; }
+    public double getWallTime() { return wallTime; }
+    public Map<String, Long> getStartTimes() { return startTimes; }
+    public List<String> getPlan() { return plan; }
+    public Map<String, Long> getObjectives() { return objectives; }
+    public AllocationPlan getAllocation() { return allocation; }
+    public String getReason() { return reason; }
+
+    public void setAllocation(AllocationPlan allocation) {
+        this.allocation = allocation;
+    }
+
+    @Override
+    public String toString() {
+        String stages = objectives.isEmpty() ? "" : ", objectives=" + objectives;
+        if (reason != null) {
+            stages += ", reason=" + reason;
+        }
+        return String.format("SolverResult{status=%s, makespan=%d, bound=%.0f, wallTime=%.2fs%s}",
+                           status, makespan, bestBound, wallTime, stages);
+    }
+}
@@ -0,0 +1,152 @@
+package com.aoe.planner.solver;
+
+import com.aoe.planner.algorithm.CompactGraph;
+import com.aoe.planner.algorithm.CriticalPathEngine;
+import com.aoe.planner.algorithm.PrecedenceGraph;
+
+import java.util.*;
+
+/**
+ * Preprocesamiento de ventanas de tiempo [ES, LS] para cada tarea.
+ *
+ * - Pasada hacia adelante: ES = máximo fin temprano de los predecesores
+ * - Pasada hacia atrás: LF = mínimo inicio tardío de los sucesores (o maxTime)
+ * - Serialización del TC: las tareas del TC que preceden (o suceden) a una
+ *   tarea no pueden solaparse entre sí, así que su duración total también
+ *   acota el inicio más temprano (o el fin más tardío)
+ *
+ * - En un modelo residual, cada tarea además respeta su cota de liberación
+ *   y las del TC no empiezan antes de que el TC quede libre
+ * - En un submodelo de fase, las tareas fijadas tienen ventana [inicio, inicio]
+ *
+ * Las pasadas las calcula CriticalPathEngine; de paso queda el camino
+ * crítico por precedencias (sin recursos) para los informes.
+ *
+ * Con estas cotas CPSATSolver crea dominios ajustados y no deja que
+ * CP-SAT las redescubra en el presolve.
+ */
+public class TimeWindows {
+
+    private final Map<String, Integer> earliestStart;
+    private final Map<String, Integer> latestStart;
+    private final List<String> criticalPath;
+    private int criticalPathLength;
+
+    private TimeWindows() {
+        this.earliestStart = new LinkedHashMap<>(); // orden topológico
+        this.latestStart = new HashMap<>();
+        this.criticalPath = new ArrayList<>();
+    }
+
+    public static TimeWindows compute(RCPSPModel rcpspModel) {
+        return compute(rcpspModel.getGraph(), rcpspModel.getMaxTime(), rcpspModel);
+    }
+
+    public static TimeWindows compute(PrecedenceGraph graph, int maxTime) {
+        return compute(graph, maxTime, null);
+    }
+
+    private static TimeWindows compute(PrecedenceGraph graph, int maxTime, RCPSPModel rcpspModel) {
+        TimeWindows windows = new TimeWindows();
+        int tcRelease = rcpspModel == null ? 0 : rcpspModel.getTownCenterRelease();
+        CompactGraph compact = graph.compact();
+        int n = compact.size();
+
+        // Duración total de tareas TC antes y después de cada tarea
+        int[] tcBefore = new int[n];
+        int[] tcAfter = new int[n];
+        for (int i = 0; i < n; i++) {
+            BitSet ancestors = compact.ancestors(i);
+            for (int a = ancestors.nextSetBit(0); a >= 0; a = ancestors.nextSetBit(a + 1)) {
+                if (compact.requiresTownCenter(a)) {
+                    tcBefore[i] += compact.duration(a);
+                }
+                if (compact.requiresTownCenter(i)) {
+                    tcAfter[a] += compact.duration(i);
+                }
+            }
+        }
+
+        // Las pasadas las hace el motor CPM: las cotas del TC y de liberación
+        // entran como inicio mínimo, las del TC posterior como plazo
+        CriticalPathEngine cpm = new CriticalPathEngine(compact);
+        cpm.setHorizon(maxTime);
+        for (int i = 0; i < n; i++) {
+            String taskId = compact.id(i);
+            int es = tcBefore[i];
+            if (rcpspModel != null) {
+                es = Math.max(rcpspModel.getReleaseTime(taskId), es);
+                if (compact.requiresTownCenter(i) || tcBefore[i] > 0) {
+                    es = Math.max(es, tcRelease + tcBefore[i]);
+                }
+                if (rcpspModel.isFixed(taskId)) {
+                    cpm.fix(i, rcpspModel.getFixedStarts().get(taskId).intValue());
+                }
+            }
+            cpm.setReleaseTime(i, es);
+            cpm.setDeadline(i, maxTime - tcAfter[i]);
+        }
+
+        for (int i = 0; i < n; i++) {
+            windows.earliestStart.put(compact.id(i), cpm.earliestStart(i));
+            windows.latestStart.put(compact.id(i), cpm.latestStart(i));
+        }
+        for (int task : cpm.criticalPath()) {
+            windows.criticalPath.add(compact.id(task));
+        }
+        windows.criticalPathLength = cpm.projectLength();
+        return windows;
+    }
+
+    public int getEarliestStart(String taskId) {
+        return earliestStart.get(taskId);
+    }
+
+    public int getLatestStart(String taskId) {
+        return latestStart.get(taskId);
+    }
+
+    /**
+     * Cadena crítica por precedencias y cotas (sin recursos), en orden
+     */
+    public List<String> getCriticalPath() {
+        return criticalPath;
+    }
+
+    public int getCriticalPathLength() {
+        return criticalPathLength;
+    }
+
+    public boolean isFixed(String taskId) {
+        return earliestStart.get(taskId).intValue() == latestStart.get(taskId).intValue();
+    }
+
+    public boolean isFeasible(String taskId) {
+        return earliestStart.get(taskId) <= latestStart.get(taskId);
+    }
+
+    /**
+     * Primera tarea (en orden topológico) con ventana vacía, o null.
+     * Todas las cotas son implicadas, así que una ventana vacía demuestra
+     * que el modelo es inviable sin necesidad de buscar.
+     */
+    public String firstInfeasibleTask() {
+        for (String taskId : earliestStart.keySet()) {
+            if (!isFeasible(taskId)) {
+                return taskId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tamaño total de los dominios de inicio, útil para comparar con [0, maxTime]
+     */
+    public long totalDomainSize() {
+        long total = 0;
+        for (String taskId : earliestStart.keySet()) {
+            total += Math.max(0, latestStart.get(taskId) - earliestStart.get(taskId) + 1);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,122 @@
+package com.aoe.planner.sweep;
+
+import com.aoe.planner.solver.*;
+import com.google.ortools.sat.CpSolverResponse;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Resolución por lotes de modelos precompilados.
+ *
+ * - export: construye una vez el CpModelProto de cada escenario (con sus hints)
+ *   y lo guarda como <escenario>.cpmodel
+ * - run: carga los .cpmodel de un directorio y los resuelve directamente,
+ *   sin reconstruir grafo ni modelo, escribiendo <escenario>.response.pb
+ * Así los mismos modelos se reutilizan entre máquinas y perfiles de solver.
+ * Los núcleos se reparten como en ScenarioSweep.
+ */
+public class ModelBatch {
+
+    private final SolverProfile baseProfile;
+    private final int concurrentSolves;
+    private final int workersPerSolve;
+
+    public ModelBatch(SolverProfile baseProfile, int concurrentSolves) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.concurrentSolves = Math.max(1, Math.min(concurrentSolves, cores));
+        this.workersPerSolve = Math.max(1, cores / this.concurrentSolves);
+        this.baseProfile = baseProfile;
+    }
+
+    public List<Path> export(List<Scenario> scenarios, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        System.out.println("=== Exportando " + scenarios.size() + " modelos a " + directory + " ===");
+
+        List<Path> files = new ArrayList<>();
+        long start = System.nanoTime();
+        for (Scenario scenario : scenarios) {
+            CPSATSolver solver = new CPSATSolver(scenario.toModel());
+            solver.setVerbose(false);
+            solver.setWarmStart(true);
+            CompiledModel compiled;
+            try {
+                compiled = solver.compile(scenario.getName());
+            } catch (IllegalStateException e) {
+                System.out.println("  ✗ " + scenario.getName() + ": " + e.getMessage());
+                continue;
+            }
+
+            Path file = directory.resolve(scenario.getName() + CompiledModel.EXTENSION);
+            compiled.writeTo(file);
+            files.add(file);
+            System.out.println("  ✓ " + file.getFileName() + " (" + compiled.getProto().getVariablesCount()
+                             + " variables, " + compiled.getProto().getConstraintsCount() + " restricciones)");
+        }
+        System.out.println(String.format("Exportación completada en %.2fs", (System.nanoTime() - start) / 1e9));
+        return files;
+    }
+
+    /**
+     * Resuelve todos los .cpmodel de 'directory'; las respuestas van a 'output'
+     */
+    public Map<String, SolverResult> run(Path directory, Path output) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(CompiledModel.EXTENSION))
+                           .sorted()
+                           .toList();
+        }
+        Files.createDirectories(output);
+
+        System.out.println("=== Lote de modelos compilados ===");
+        System.out.println("Modelos: " + files.size()
+                         + " | Resoluciones concurrentes: " + concurrentSolves
+                         + " | Workers CP-SAT por resolución: " + workersPerSolve);
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrentSolves);
+        Map<Path, Future<SolverResult>> futures = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        for (Path file : files) {
+            futures.put(file, pool.submit(() -> solveFile(file, output)));
+        }
+
+        Map<String, SolverResult> results = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Path, Future<SolverResult>> entry : futures.entrySet()) {
+                String name = entry.getKey().getFileName().toString();
+                try {
+                    results.put(name, entry.getValue().get());
+                } catch (ExecutionException e) {
+                    System.out.println("  ✗ " + name + ": " + e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        System.out.println(String.format("Lote completado: %d/%d modelos en %.2fs",
+                                         results.size(), files.size(), (System.nanoTime() - start) / 1e9));
+        return results;
+    }
+
+    private SolverResult solveFile(Path file, Path output) throws IOException {
+        CompiledModel compiled = CompiledModel.readFrom(file);
+
+        SolverProfile profile = baseProfile.copy();
+        profile.setWorkers(workersPerSolve);
+        profile.setLogSearchProgress(false);
+
+        CpSolverResponse response = compiled.solve(profile);
+        CompiledModel.writeResponse(response, output.resolve(compiled.getName() + CompiledModel.RESPONSE_EXTENSION));
+
+        SolverResult result = compiled.toResult(response);
+        System.out.println("  ✓ " + compiled.getName() + " → " + result);
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package com.aoe.planner.sweep;
+
+import com.aoe.planner.algorithm.CompactGraph;
+import com.aoe.planner.model.GameState;
+import com.aoe.planner.simulation.DiscreteEventSimulator;
+import com.aoe.planner.solver.*;
+
+import java.util.*;
+
+/**
+ * Estudio de escalado sobre instancias de InstanceGenerator.
+ *
+ * Para cada factor genera la instancia escalada, la resuelve con CPSATSolver
+ * y reproduce el plan en el simulador, midiendo por separado el tiempo de
+ * generación, de resolución y de simulación. Sirve para detectar cuellos de
+ * botella que no aparecen con los ~20 tareas del modelo base.
+ */
+public class ScalingStudy {
+
+    private final InstanceGenerator generator;
+    private final SolverProfile profile;
+
+    public ScalingStudy(InstanceGenerator generator, SolverProfile profile) {
+        this.generator = generator;
+        this.profile = profile.copy();
+        this.profile.setLogSearchProgress(false);
+    }
+
+    public void run(List<Integer> scales) {
+        System.out.println("=== Estudio de escalado: " + generator + " ===");
+        System.out.println("Perfil: " + profile);
+        System.out.println(String.format("%-6s %-7s %-13s | %-9s %-9s %-10s %-9s | %-9s %-9s",
+                                         "Escala", "Tareas", "Aristas(red.)", "Generar", "Resolver", "Estado",
+                                         "Makespan", "Simulado", "Simular"));
+
+        for (int scale : scales) {
+            long start = System.nanoTime();
+            RCPSPModel model = generator.scaled(scale).generate();
+            double generateTime = (System.nanoTime() - start) / 1e9;
+            CompactGraph compact = model.getGraph().compact();
+            String edges = compact.edgeCount() + " (" + compact.redundantEdgeCount() + ")";
+
+            start = System.nanoTime();
+            CPSATSolver solver = new CPSATSolver(model);
+            solver.setProfile(profile);
+            solver.setVerbose(false);
+            solver.setWarmStart(true);
+            SolverResult result = solver.solveSchedule();
+            double solveTime = (System.nanoTime() - start) / 1e9;
+
+            String simulated = "-";
+            double simulateTime = 0;
+            if (result.hasSolution()) {
+                start = System.nanoTime();
+                DiscreteEventSimulator simulator = new DiscreteEventSimulator(new GameState());
+                simulator.setVerbose(false);
+                simulator.executePlan(result.getPlan());
+                simulateTime = (System.nanoTime() - start) / 1e9;
+                GameState state = simulator.getState();
+                simulated = state.getCurrentTime() + (state.hasReachedCastleAge() ? "s" : "s*");
+            }
+
+            System.out.println(String.format("%-6s %-7d %-13s | %-9s %-9s %-10s %-9d | %-9s %-9s",
+                                             scale + "x", model.getGraph().size(), edges,
+                                             String.format("%.3fs", generateTime),
+                                             String.format("%.2fs", solveTime),
+                                             result.getStatus(), result.getMakespan(),
+                                             simulated, String.format("%.3fs", simulateTime)));
+        }
+        System.out.println("(* = el simulador no llegó a Castillos; solo modela un Centro Urbano)");
+    }
+}
@@ -0,0 +1,52 @@
+package com.aoe.planner.sweep;
+
+import com.aoe.planner.model.Resource;
+import com.aoe.planner.solver.RCPSPModel;
+
+/**
+ * Una variante de parámetros de RCPSPModel dentro de un barrido.
+ */
+public class Scenario {
+    private final int villagerCount;
+    private final int houseCount;
+    private final int maxTime;
+    private final Resource initialResources;
+    private final int initialVillagers;
+
+    public Scenario(int villagerCount, int houseCount, int maxTime,
+                    Resource initialResources, int initialVillagers) {
+        this.villagerCount = villagerCount;
+        this.houseCount = houseCount;
+        this.maxTime = maxTime;
+        this.initialResources = initialResources;
+        this.initialVillagers = initialVillagers;
+    }
+
+    /**
+     * Construye un modelo nuevo (cada resolución necesita su propio grafo)
+     */
+    public RCPSPModel toModel() {
+        RCPSPModel model = new RCPSPModel(maxTime, villagerCount, houseCount,
+                                          initialResources.copy(), initialVillagers);
+        model.buildModel();
+        return model;
+    }
+
+    public String getName() {
+        return String.format("v%d_h%d_t%d_r%d-%d-%d_i%d", villagerCount, houseCount, maxTime,
+                           initialResources.getFood(), initialResources.getWood(),
+                           initialResources.getGold(), initialVillagers);
+    }
+
+    // Getters
+    public int getVillagerCount() { return villagerCount; }
+    public int getHouseCount() { return houseCount; }
+    public int getMaxTime() { return maxTime; }
+    public Resource getInitialResources() { return initialResources; }
+    public int getInitialVillagers() { return initialVillagers; }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,131 @@
+package com.aoe.planner.sweep;
+
+import com.aoe.planner.model.Resource;
+import com.aoe.planner.solver.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Ejecuta muchas variantes de RCPSPModel en un solo proceso.
+ *
+ * Los núcleos se reparten entre resoluciones concurrentes y workers de
+ * CP-SAT por resolución: con N núcleos y C resoluciones simultáneas,
+ * cada CP-SAT usa N / C workers, así ninguna combinación sobresuscribe la máquina.
+ */
+public class ScenarioSweep {
+
+    private final SolverProfile baseProfile;
+    private final int concurrentSolves;
+    private final int workersPerSolve;
+    private ScheduleCache cache;
+
+    public ScenarioSweep(SolverProfile baseProfile, int concurrentSolves) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.concurrentSolves = Math.max(1, Math.min(concurrentSolves, cores));
+        this.workersPerSolve = Math.max(1, cores / this.concurrentSolves);
+        this.baseProfile = baseProfile;
+    }
+
+    /**
+     * Caché compartida entre los escenarios (opcional)
+     */
+    public void setCache(ScheduleCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Producto cartesiano de los valores de cada parámetro
+     */
+    public static List<Scenario> grid(List<Integer> villagerCounts, List<Integer> houseCounts,
+                                      List<Integer> maxTimes, List<Resource> initialResources,
+                                      List<Integer> initialVillagers) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int villagers : villagerCounts) {
+            for (int houses : houseCounts) {
+                for (int maxTime : maxTimes) {
+                    for (Resource resources : initialResources) {
+                        for (int initial : initialVillagers) {
+                            scenarios.add(new Scenario(villagers, houses, maxTime, resources, initial));
+                        }
+                    }
+                }
+            }
+        }
+        return scenarios;
+    }
+
+    public List<SweepResult> run(List<Scenario> scenarios) {
+        System.out.println("=== Barrido de escenarios ===");
+        System.out.println("Escenarios: " + scenarios.size()
+                         + " | Resoluciones concurrentes: " + concurrentSolves
+                         + " | Workers CP-SAT por resolución: " + workersPerSolve);
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrentSolves);
+        List<Future<SweepResult>> futures = new ArrayList<>();
+        long sweepStart = System.nanoTime();
+
+        for (Scenario scenario : scenarios) {
+            futures.add(pool.submit(() -> solveScenario(scenario)));
+        }
+
+        List<SweepResult> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new SweepResult(scenarios.get(i), e.getCause().toString(), 0));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double totalSeconds = (System.nanoTime() - sweepStart) / 1e9;
+        printTable(results, totalSeconds);
+        return results;
+    }
+
+    private SweepResult solveScenario(Scenario scenario) {
+        long start = System.nanoTime();
+
+        SolverProfile profile = baseProfile.copy();
+        profile.setWorkers(workersPerSolve);
+        profile.setLogSearchProgress(false);
+
+        CPSATSolver solver = new CPSATSolver(scenario.toModel());
+        solver.setProfile(profile);
+        solver.setVerbose(false);
+        solver.setWarmStart(true);
+        solver.setCache(cache);
+        SolverResult result = solver.solveSchedule();
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.println("  ✓ " + scenario.getName() + " → " + result.getStatus()
+                         + " (" + String.format("%.2f", elapsed) + "s)");
+        return new SweepResult(scenario, result, elapsed);
+    }
+
+    private void printTable(List<SweepResult> results, double totalSeconds) {
+        System.out.println("\n=== Resultados del barrido ===");
+        System.out.println(SweepResult.header());
+        for (SweepResult row : results) {
+            System.out.println(row.toRow());
+        }
+        System.out.println(String.format("Tiempo total del barrido: %.2fs", totalSeconds));
+        if (cache != null) {
+            System.out.println(cache);
+        }
+    }
+
+    public int getConcurrentSolves() {
+        return concurrentSolves;
+    }
+
+    public int getWorkersPerSolve() {
+        return workersPerSolve;
+    }
+}
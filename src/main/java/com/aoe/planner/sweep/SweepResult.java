@@ -0,0 +1,55 @@
+package com.aoe.planner.sweep;
+
+import com.aoe.planner.solver.SolverResult;
+
+/**
+ * Fila de la tabla de resultados de un barrido.
+ */
+public class SweepResult {
+    private final Scenario scenario;
+    private final SolverResult result;
+    private final double elapsedSeconds; // incluye construcción del modelo
+    private final String error;
+
+    public SweepResult(Scenario scenario, SolverResult result, double elapsedSeconds) {
+        this.scenario = scenario;
+        this.result = result;
+        this.elapsedSeconds = elapsedSeconds;
+        this.error = null;
+    }
+
+    public SweepResult(Scenario scenario, String error, double elapsedSeconds) {
+        this.scenario = scenario;
+        this.result = null;
+        this.elapsedSeconds = elapsedSeconds;
+        this.error = error;
+    }
+
+    public static String header() {
+        return String.format("%-8s %-6s %-7s %-14s %-5s | %-10s %-9s %-9s %-8s",
+                           "Aldeanos", "Casas", "MaxT", "Recursos F/W/G", "Ini",
+                           "Estado", "Makespan", "Cota", "Tiempo");
+    }
+
+    public String toRow() {
+        String resources = scenario.getInitialResources().getFood() + "/"
+                         + scenario.getInitialResources().getWood() + "/"
+                         + scenario.getInitialResources().getGold();
+        String left = String.format("%-8d %-6d %-7d %-14s %-5d", scenario.getVillagerCount(),
+                                    scenario.getHouseCount(), scenario.getMaxTime(), resources,
+                                    scenario.getInitialVillagers());
+        if (result == null) {
+            return left + " | ERROR: " + error;
+        }
+        String makespan = result.hasSolution() ? String.valueOf(result.getMakespan()) : "-";
+        String bound = result.hasSolution() ? String.format("%.0f", result.getBestBound()) : "-";
+        return left + String.format(" | %-10s %-9s %-9s %.2fs", result.getStatus(), makespan,
+                                    bound, elapsedSeconds);
+    }
+
+    // Getters
+    public Scenario getScenario() { return scenario; }
+    public SolverResult getResult() { return result; }
+    public double getElapsedSeconds() { return elapsedSeconds; }
+    public String getError() { return error; }
+}